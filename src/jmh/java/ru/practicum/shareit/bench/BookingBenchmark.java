@@ -0,0 +1,80 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingRequestDto;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.booking.BookingService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Создание бронирования и чтение одной брони двумя путями: через проекцию (как в сервисе)
+ * и через управляемую сущность в пишущей транзакции, как было до перехода на проекции.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BookingBenchmark {
+
+    private final AtomicLong slot = new AtomicLong();
+
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private BookingMapper bookingMapper;
+    private TransactionTemplate transactionTemplate;
+    private Dataset dataset;
+    private LocalDateTime farFuture;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItState app) {
+        bookingService = app.bean(BookingService.class);
+        bookingRepository = app.bean(BookingRepository.class);
+        bookingMapper = app.bean(BookingMapper.class);
+        transactionTemplate = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+        dataset = app.dataset();
+        farFuture = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusYears(5);
+    }
+
+    /**
+     * Каждый вызов занимает свой час, поэтому конфликтов пересечения нет и меряется только успешный путь.
+     */
+    @Benchmark
+    public BookingResponseDto create() {
+        long itemId = dataset.randomItemId();
+        LocalDateTime start = farFuture.plusHours(slot.getAndIncrement());
+        return bookingService.create(new BookingRequestDto(itemId, start, start.plusMinutes(30)),
+                dataset.notOwnerOf(itemId));
+    }
+
+    @Benchmark
+    public BookingResponseDto getByProjection() {
+        long bookingId = dataset.randomBookingId();
+        return bookingService.get(bookingId, dataset.bookerOf(bookingId));
+    }
+
+    @Benchmark
+    public BookingResponseDto getByEntity() {
+        long bookingId = dataset.randomBookingId();
+        return transactionTemplate.execute(status -> bookingRepository.findById(bookingId)
+                .map(bookingMapper::toResponseDto)
+                .orElseThrow());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Списки бронирований арендатора и владельца через контроллер, по каждому состоянию отдельно
+ * и при разной длине истории пользователя. Для CURRENT, FUTURE, WAITING и REJECTED время не должно
+ * расти вместе с {@code bookingsPerUser}: индексы отсекают прошлые брони, а страница ограничена размером.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BookingListingBenchmark {
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    private MockMvc mockMvc;
+    private Dataset dataset;
+
+    @State(Scope.Benchmark)
+    public static class HistoryApp extends ShareItState {
+
+        @Param({"10", "100", "1000"})
+        public int bookingsPerUser;
+
+        @Override
+        protected int bookingsPerUser() {
+            return bookingsPerUser;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(HistoryApp app) {
+        mockMvc = app.mockMvc();
+        dataset = app.dataset();
+    }
+
+    @Benchmark
+    public byte[] bookerBookings() throws Exception {
+        return mockMvc.perform(get("/bookings")
+                        .param("state", state)
+                        .header(ShareItState.USER_HEADER, dataset.randomUserId()))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] ownerBookings() throws Exception {
+        return mockMvc.perform(get("/bookings/owner")
+                        .param("state", state)
+                        .header(ShareItState.USER_HEADER, dataset.randomUserId()))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
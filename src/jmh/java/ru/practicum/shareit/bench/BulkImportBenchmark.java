@@ -0,0 +1,82 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.bulk.BulkImportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пакетная вставка пользователей через NDJSON-импорт; результат — строк в секунду. Сравнивает генерацию
+ * id последовательностью с шагом 50 и identity-столбцом, а также вставку пачками JDBC по 50 и по одной строке.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BulkImportBenchmark {
+
+    private static final int ROWS_PER_REQUEST = 1000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private BulkImportService bulkImportService;
+
+    @State(Scope.Benchmark)
+    public static class ImportApp extends ShareItState {
+
+        /**
+         * {@code IDENTITY} подключает bench/users-identity-orm.xml поверх аннотаций {@code UserEntity}.
+         */
+        @Param({"SEQUENCE", "IDENTITY"})
+        public String idGeneration;
+
+        /**
+         * 0 выключает пакетную вставку JDBC.
+         */
+        @Param({"0", "50"})
+        public int jdbcBatchSize;
+
+        @Override
+        protected void customize(List<String> args) {
+            args.add("--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+            if ("IDENTITY".equals(idGeneration)) {
+                args.add("--spring.jpa.mapping-resources=bench/users-identity-orm.xml");
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(ImportApp app) {
+        bulkImportService = app.bean(BulkImportService.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_REQUEST)
+    public byte[] importUsers() {
+        StringBuilder body = new StringBuilder(ROWS_PER_REQUEST * 64);
+        for (int i = 0; i < ROWS_PER_REQUEST; i++) {
+            long n = sequence.incrementAndGet();
+            body.append("{\"name\":\"bulk").append(n).append("\",\"email\":\"bulk").append(n)
+                    .append("@example.com\"}\n");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ROWS_PER_REQUEST * 32);
+        bulkImportService.importUsers(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+        return out.toByteArray();
+    }
+}
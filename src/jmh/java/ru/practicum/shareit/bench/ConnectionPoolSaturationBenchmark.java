@@ -0,0 +1,117 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /bookings/{id}} по HTTP при клиентах, которых больше, чем соединений в пуле: каждый запрос
+ * удерживает соединение на время своих запросов к базе ({@code bench.statement-latency}), поэтому
+ * пропускная способность упирается в размер пула. Запросы, не дождавшиеся соединения за
+ * {@code connectionTimeoutMs}, получают 503 и считаются отдельно в {@code rejected}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+public class ConnectionPoolSaturationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PoolState extends ShareItState {
+
+        @Param({"2", "10", "32"})
+        public int poolSize;
+
+        @Param("5")
+        public int statementLatencyMs;
+
+        @Param("250")
+        public int connectionTimeoutMs;
+
+        @Override
+        protected void customize(List<String> args) {
+            args.add("--bench.statement-latency=" + statementLatencyMs + "ms");
+            args.add("--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+            args.add("--spring.datasource.hikari.minimum-idle=" + poolSize);
+            args.add("--spring.datasource.hikari.connection-timeout=" + connectionTimeoutMs);
+        }
+
+        @Override
+        protected Class<?>[] sources() {
+            return new Class<?>[]{ShareItApp.class, SlowDatabaseConfiguration.class};
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Client {
+        private HttpClient httpClient;
+        private URI baseUri;
+        private Dataset dataset;
+
+        @Setup(Level.Trial)
+        public void setUp(PoolState app) {
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            baseUri = URI.create("http://localhost:" + app.port());
+            dataset = app.dataset();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            httpClient.close();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long served;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            served = 0;
+            rejected = 0;
+        }
+    }
+
+    @Benchmark
+    public int getBooking(Client client, Outcomes outcomes) throws IOException, InterruptedException {
+        long bookingId = client.dataset.randomBookingId();
+        HttpRequest request = HttpRequest.newBuilder(client.baseUri.resolve("/bookings/" + bookingId))
+                .header(ShareItState.USER_HEADER, String.valueOf(client.dataset.bookerOf(bookingId)))
+                .GET()
+                .build();
+        int status = client.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        switch (status) {
+            case 200 -> outcomes.served++;
+            case 503 -> outcomes.rejected++;
+            default -> throw new IllegalStateException("Неожиданный статус " + status + " для брони " + bookingId);
+        }
+        return status;
+    }
+}
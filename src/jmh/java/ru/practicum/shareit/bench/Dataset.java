@@ -0,0 +1,49 @@
+package ru.practicum.shareit.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Размеры наполненной базы. Идентификаторы идут подряд с единицы,
+ * владелец вещи {@code i} — пользователь {@code (i - 1) % users + 1}.
+ */
+public record Dataset(int users, int items, int bookings, int comments) {
+
+    static final String[] WORDS = {
+        "дрель", "лестница", "палатка", "велосипед", "перфоратор", "самокат", "тент", "мангал",
+        "байдарка", "шуруповёрт", "проектор", "пила", "лодка", "гитара", "камера", "штатив"
+    };
+
+    public long randomUserId() {
+        return ThreadLocalRandom.current().nextInt(users) + 1L;
+    }
+
+    public long randomItemId() {
+        return ThreadLocalRandom.current().nextInt(items) + 1L;
+    }
+
+    public long randomBookingId() {
+        return ThreadLocalRandom.current().nextInt(bookings) + 1L;
+    }
+
+    public long ownerOf(long itemId) {
+        return (itemId - 1) % users + 1;
+    }
+
+    /**
+     * Пользователь, который гарантированно не владеет вещью.
+     */
+    public long notOwnerOf(long itemId) {
+        return ownerOf(itemId) % users + 1;
+    }
+
+    /**
+     * Автор брони: сидер кладёт бронь {@code b} на вещь {@code (b - 1) % items + 1} от её не-владельца.
+     */
+    public long bookerOf(long bookingId) {
+        return notOwnerOf((bookingId - 1) % items + 1);
+    }
+
+    public String randomSearchWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Наполняет схему пакетными JDBC-вставками в обход JPA, иначе сидирование миллиона строк
+ * занимает больше времени, чем сам замер.
+ */
+class DatasetSeeder {
+
+    static final int DEFAULT_BOOKINGS_PER_USER = 50;
+
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BATCH = 10_000;
+    private static final String[] STATUSES = {"APPROVED", "APPROVED", "WAITING", "APPROVED", "REJECTED"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Каждый пользователь владеет {@value #ITEMS_PER_USER} вещами и бронирует столько же чужих,
+     * поэтому при заданном {@code bookingsPerUser} история одного пользователя не зависит от {@code rows}.
+     */
+    Dataset seed(int rows, int bookingsPerUser) {
+        int users = Math.max(10, rows / Math.max(ITEMS_PER_USER, bookingsPerUser));
+        int items = users * ITEMS_PER_USER;
+        Dataset dataset = new Dataset(users, items, rows, items);
+        seedUsers(dataset);
+        seedItems(dataset);
+        seedBookings(dataset);
+        seedComments(dataset);
+        restartSequence("users_seq", dataset.users());
+        // users.id ещё и identity-столбец: BulkImportBenchmark сравнивает с ним генерацию через последовательность
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (dataset.users() + 51));
+        restartSequence("items_seq", dataset.items());
+        restartSequence("bookings_seq", dataset.bookings());
+        restartSequence("comments_seq", dataset.comments());
+        return dataset;
+    }
+
+    private void seedUsers(Dataset dataset) {
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", dataset.users(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setString(2, "user" + id);
+            ps.setString(3, "user" + id + "@example.com");
+        });
+    }
+
+    private void seedItems(Dataset dataset) {
+        String[] words = Dataset.WORDS;
+        insert("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                dataset.items(), (ps, id) -> {
+                    String word = words[(int) (id % words.length)];
+                    ps.setLong(1, id);
+                    ps.setString(2, word + " " + id);
+                    ps.setString(3, "хорошая " + word + " и " + words[(int) (id * 7 % words.length)]);
+                    ps.setBoolean(4, true);
+                    ps.setLong(5, dataset.ownerOf(id));
+                });
+    }
+
+    /**
+     * У каждой вещи цепочка непересекающихся суточных броней через день: предпоследняя идёт сейчас,
+     * последняя в будущем, остальные в прошлом. Чем длиннее история, тем больше прошлых броней,
+     * а текущих и будущих у пользователя столько же.
+     */
+    private void seedBookings(Dataset dataset) {
+        long chain = (dataset.bookings() + dataset.items() - 1) / dataset.items();
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(12)
+                .minusDays(Math.max(0, chain - 2) * 2);
+        insert("INSERT INTO bookings (id, start_date, end_date, item_id, owner_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                dataset.bookings(), (ps, id) -> {
+                    long itemId = (id - 1) % dataset.items() + 1;
+                    long sequence = (id - 1) / dataset.items();
+                    LocalDateTime start = base.plusDays(sequence * 2);
+                    ps.setLong(1, id);
+                    ps.setTimestamp(2, Timestamp.valueOf(start));
+                    ps.setTimestamp(3, Timestamp.valueOf(start.plusDays(1)));
+                    ps.setLong(4, itemId);
+                    ps.setLong(5, dataset.ownerOf(itemId));
+                    ps.setLong(6, dataset.bookerOf(id));
+                    ps.setString(7, STATUSES[(int) (id % STATUSES.length)]);
+                });
+    }
+
+    private void seedComments(Dataset dataset) {
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        insert("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                dataset.comments(), (ps, id) -> {
+                    long itemId = (id - 1) % dataset.items() + 1;
+                    ps.setLong(1, id);
+                    ps.setString(2, "отзыв " + id);
+                    ps.setLong(3, itemId);
+                    ps.setLong(4, dataset.notOwnerOf(itemId));
+                    ps.setTimestamp(5, created);
+                });
+        jdbcTemplate.update("UPDATE items SET comment_count = "
+                + "(SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id)");
+    }
+
+    private void insert(String sql, int count, RowBinder binder) {
+        for (int from = 1; from <= count; from += BATCH) {
+            int to = Math.min(count, from + BATCH - 1);
+            List<Long> ids = new ArrayList<>(to - from + 1);
+            for (long id = from; id <= to; id++) {
+                ids.add(id);
+            }
+            jdbcTemplate.batchUpdate(sql, ids, ids.size(), binder::bind);
+        }
+    }
+
+    /**
+     * Pooled-оптимизатор Hibernate выдаёт диапазон ниже значения последовательности,
+     * поэтому отступаем от засеянных id на целый шаг аллокации.
+     */
+    private void restartSequence(String sequence, int maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 51));
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, Long id) throws SQLException;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemResponseDto;
+import ru.practicum.shareit.item.ItemService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ItemBenchmark {
+
+    private ItemService itemService;
+    private MockMvc mockMvc;
+    private Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void setUp(ShareItState app) {
+        itemService = app.bean(ItemService.class);
+        mockMvc = app.mockMvc();
+        dataset = app.dataset();
+    }
+
+    @Benchmark
+    public Collection<ItemResponseDto> searchItems() {
+        return itemService.getItemsSearch(dataset.randomSearchWord(), 0, 20);
+    }
+
+    @Benchmark
+    public byte[] getUserItemsEndpoint() throws Exception {
+        return mockMvc.perform(get("/items")
+                        .header(ShareItState.USER_HEADER, dataset.randomUserId()))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] getItemEndpoint() throws Exception {
+        long itemId = dataset.randomItemId();
+        return mockMvc.perform(get("/items/{id}", itemId)
+                        .header(ShareItState.USER_HEADER, dataset.ownerOf(itemId)))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.practicum.shareit.booking.BookingEntity;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingMapperImpl;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.booking.BookingShortDto;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.comment.CommentEntity;
+import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.comment.CommentMapperImpl;
+import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.ItemResponseDto;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserMapperImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг без базы: мапперы MapStruct собираются в маленьком контексте, чтобы связались их зависимости.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+    private CommentMapper commentMapper;
+
+    private ItemEntity item;
+    private BookingEntity booking;
+    private BookingView bookingView;
+    private CommentEntity comment;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(ItemMapperImpl.class, BookingMapperImpl.class,
+                CommentMapperImpl.class, UserMapperImpl.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        commentMapper = context.getBean(CommentMapper.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        UserEntity owner = UserEntity.builder().id(1L).name("Владелец").email("owner@example.com").build();
+        UserEntity booker = UserEntity.builder().id(2L).name("Арендатор").email("booker@example.com").build();
+        item = ItemEntity.builder()
+                .id(10L)
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .owner(owner)
+                .build();
+        List<CommentEntity> comments = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            CommentEntity itemComment = new CommentEntity();
+            itemComment.setId(100L + i);
+            itemComment.setText("Отзыв " + i);
+            itemComment.setItem(item);
+            itemComment.setAuthor(booker);
+            itemComment.setCreated(now);
+            comments.add(itemComment);
+        }
+        item.setComments(comments);
+        comment = comments.get(0);
+        booking = BookingEntity.builder()
+                .id(1000L)
+                .startDate(now.plusDays(1))
+                .endDate(now.plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .item(item)
+                .booker(booker)
+                .build();
+        bookingView = new BookingView(1000L, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED,
+                2L, "Арендатор", "booker@example.com", 10L, "Дрель", "Аккумуляторная дрель", true, 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToResponseDto() {
+        return itemMapper.toResponseDto(item);
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToListingDto() {
+        return itemMapper.toListingDto(item);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingEntityToResponseDto() {
+        return bookingMapper.toResponseDto(booking);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingViewToResponseDto() {
+        return bookingMapper.toResponseDto(bookingView);
+    }
+
+    @Benchmark
+    public BookingShortDto bookingToShortDto() {
+        return bookingMapper.toShortDto(booking);
+    }
+
+    @Benchmark
+    public CommentResponseDto commentToResponseDto() {
+        return commentMapper.toResponseDto(comment);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поток с преобладанием чтений (90%) по пользователям и вещам, с кэшем второго уровня и без него.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+public class MixedTrafficBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CacheComparisonState extends ShareItState {
+
+        @Param({"true", "false"})
+        public boolean cache;
+
+        @Override
+        protected void customize(List<String> args) {
+            args.add("--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache);
+            args.add("--spring.cache.type=" + (cache ? "caffeine" : "none"));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        private UserService userService;
+        private ItemService itemService;
+        private Dataset dataset;
+
+        @Setup(Level.Trial)
+        public void setUp(CacheComparisonState app) {
+            userService = app.bean(UserService.class);
+            itemService = app.bean(ItemService.class);
+            dataset = app.dataset();
+        }
+    }
+
+    @Benchmark
+    public Object readMostly(Services services) {
+        Dataset dataset = services.dataset;
+        int dice = ThreadLocalRandom.current().nextInt(100);
+        if (dice < 10) {
+            long userId = dataset.randomUserId();
+            return services.userService.update(UserDto.builder().name("user" + userId + "-" + dice).build(), userId);
+        }
+        if (dice < 40) {
+            return services.userService.get(dataset.randomUserId());
+        }
+        if (dice < 70) {
+            long itemId = dataset.randomItemId();
+            return services.itemService.getById(itemId, dataset.notOwnerOf(itemId));
+        }
+        return services.userService.userExistsById(dataset.randomUserId());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRequestDto;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.notification.BookingNotificationType;
+import ru.practicum.shareit.notification.BookingOutbox;
+import ru.practicum.shareit.notification.BookingOutboxRepository;
+import ru.practicum.shareit.notification.OutboxDispatcher;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+/**
+ * Очередь уведомлений о бронированиях. {@code drain} — сколько уведомлений в миллисекунду разбирает
+ * один диспетчер при заданном размере пачки; {@code createToDelivery} — время от создания бронирования
+ * до доставки его уведомления фоновым диспетчером, то есть задержка, которую в приложении пишет
+ * {@code shareit.outbox.lag}, вместе с самим созданием.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class OutboxDispatchBenchmark {
+
+    private static final int BACKLOG = 1000;
+
+    @State(Scope.Benchmark)
+    public static class DrainApp extends ShareItState {
+
+        @Param({"10", "100", "500"})
+        public int batchSize;
+
+        @Override
+        protected void customize(List<String> args) {
+            args.add("--shareit.outbox.batch-size=" + batchSize);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LagApp extends ShareItState {
+
+        @Param({"50", "500"})
+        public int pollIntervalMs;
+
+        @Override
+        protected void customize(List<String> args) {
+            args.add("--shareit.outbox.dispatcher.enabled=true");
+            args.add("--shareit.outbox.poll-interval=" + pollIntervalMs + "ms");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Backlog {
+        private OutboxDispatcher dispatcher;
+        private BookingOutbox outbox;
+        private TransactionTemplate transactionTemplate;
+        private List<Long> bookingIds;
+
+        @Setup(Level.Trial)
+        public void setUp(DrainApp app) {
+            dispatcher = app.bean(OutboxDispatcher.class);
+            outbox = app.bean(BookingOutbox.class);
+            transactionTemplate = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+            bookingIds = LongStream.rangeClosed(1, Math.min(BACKLOG, app.dataset().bookings())).boxed().toList();
+        }
+
+        @Setup(Level.Invocation)
+        public void fill() {
+            transactionTemplate.executeWithoutResult(status ->
+                    outbox.enqueueAll(BookingNotificationType.CREATED, bookingIds));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bookings {
+        private final AtomicLong slot = new AtomicLong();
+        private BookingService bookingService;
+        private BookingOutboxRepository outboxRepository;
+        private Dataset dataset;
+        private LocalDateTime farFuture;
+
+        @Setup(Level.Trial)
+        public void setUp(LagApp app) {
+            bookingService = app.bean(BookingService.class);
+            outboxRepository = app.bean(BookingOutboxRepository.class);
+            dataset = app.dataset();
+            farFuture = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusYears(5);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(BACKLOG)
+    public int drain(Backlog backlog) {
+        int drained = 0;
+        int claimed;
+        do {
+            claimed = backlog.dispatcher.dispatchBatch();
+            drained += claimed;
+        } while (claimed > 0);
+        return drained;
+    }
+
+    /**
+     * Один поток: очередь пуста, как только доставлено уведомление о только что созданном бронировании.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long createToDelivery(Bookings bookings) {
+        long itemId = bookings.dataset.randomItemId();
+        LocalDateTime start = bookings.farFuture.plusHours(bookings.slot.getAndIncrement());
+        long bookingId = bookings.bookingService.create(new BookingRequestDto(itemId, start, start.plusMinutes(30)),
+                bookings.dataset.notOwnerOf(itemId)).getId();
+        while (bookings.outboxRepository.count() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return bookingId;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingResponseDto;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemResponseDto;
+import ru.practicum.shareit.user.UserDto;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена одной записи журнала на ответ {@code GET /bookings}: прежний лог контроллера с телом ответа
+ * против строки-сводки {@code RequestLoggingFilter}. Запуск с {@code -prof gc} показывает аллокации на вызов;
+ * вывод идёт в пустой поток, чтобы мерить форматирование, а не консоль.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RequestLoggingBenchmark {
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private LoggerContext loggerContext;
+    private Logger infoLogger;
+    private Logger offLogger;
+    private Collection<BookingResponseDto> response;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %-5level [%thread] %logger{36} : %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        infoLogger = loggerContext.getLogger("bench.info");
+        infoLogger.setLevel(Level.INFO);
+        infoLogger.addAppender(appender);
+        offLogger = loggerContext.getLogger("bench.off");
+        offLogger.setLevel(Level.OFF);
+        offLogger.addAppender(appender);
+
+        response = bookings(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    /**
+     * Как было в контроллерах: запрос и весь ответ через Lombok {@code toString}.
+     */
+    @Benchmark
+    public void payloadLog() {
+        infoLogger.info(">>> GET /bookings | userId: {}, state: {}, from: {}, size: {}", 1L, "ALL", 0, size);
+        infoLogger.info("<<< GET /bookings | Отдано бронирований: {}", response);
+    }
+
+    @Benchmark
+    public void summaryLog() {
+        summary(infoLogger);
+    }
+
+    @Benchmark
+    public void summaryLogDisabled() {
+        summary(offLogger);
+    }
+
+    private void summary(Logger logger) {
+        if (logger.isInfoEnabled()) {
+            logger.info("method={} path={} status={} latencyMs={} userId={} size={}",
+                    "GET", "/bookings", 200, 3L, "1", response.size());
+        }
+    }
+
+    private static Collection<BookingResponseDto> bookings(int count) {
+        LocalDateTime start = LocalDateTime.now();
+        List<BookingResponseDto> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            bookings.add(BookingResponseDto.builder()
+                    .id(id)
+                    .start(start.plusDays(id))
+                    .end(start.plusDays(id + 1))
+                    .status(BookingStatus.APPROVED)
+                    .booker(UserDto.builder().id(id).name("user" + id).email("user" + id + "@example.com").build())
+                    .item(ItemResponseDto.builder()
+                            .id(id)
+                            .name("дрель " + id)
+                            .description("хорошая дрель " + id)
+                            .available(true)
+                            .comments(List.of())
+                            .build())
+                    .build());
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.InMemoryItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поднимает приложение на H2 со схемой из миграций Flyway (с теми же индексами, что и в рабочей базе)
+ * и наполняет базу на {@code rows} бронирований. Контекст общий для всех потоков бенчмарка и живёт весь trial.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Param("10000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:shareit-bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.flyway.enabled=true",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.practicum.shareit=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        customize(args);
+        context = new SpringApplicationBuilder(sources())
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+        dataset = new DatasetSeeder(context.getBean(JdbcTemplate.class)).seed(rows, bookingsPerUser());
+        context.getBean(InMemoryItemSearchEngine.class).rebuild();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Аргументы командной строки приложения; состояния-наследники дописывают сюда сравниваемые настройки.
+     */
+    protected void customize(List<String> args) {
+    }
+
+    /**
+     * Длина истории бронирований одного пользователя; от неё зависит, сколько в базе пользователей.
+     */
+    protected int bookingsPerUser() {
+        return DatasetSeeder.DEFAULT_BOOKINGS_PER_USER;
+    }
+
+    protected Class<?>[] sources() {
+        return new Class<?>[]{ShareItApp.class};
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+
+    public MockMvc mockMvc() {
+        return mockMvc;
+    }
+
+    public Dataset dataset() {
+        return dataset;
+    }
+}
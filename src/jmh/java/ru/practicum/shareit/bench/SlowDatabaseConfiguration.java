@@ -0,0 +1,83 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Добавляет к получению соединения задержку {@code bench.db-latency}, имитируя сетевой путь до PostgreSQL:
+ * H2 в памяти отвечает за микросекунды, и без неё поток запроса почти не блокируется.
+ * {@code bench.statement-latency} задерживает каждую подготовку запроса уже на выданном соединении —
+ * так соединение удерживается столько, сколько шла бы работа с настоящей базой, и пул можно насытить.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SlowDatabaseConfiguration {
+
+    @Bean
+    static BeanPostProcessor slowDataSourcePostProcessor(Environment environment) {
+        Duration latency = environment.getProperty("bench.db-latency", Duration.class, Duration.ZERO);
+        Duration statementLatency = environment.getProperty("bench.statement-latency", Duration.class, Duration.ZERO);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(latency.isZero() && statementLatency.isZero())) {
+                    return new SlowDataSource(dataSource, latency, statementLatency);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class SlowDataSource extends DelegatingDataSource {
+
+        private final Duration latency;
+        private final Duration statementLatency;
+
+        private SlowDataSource(DataSource target, Duration latency, Duration statementLatency) {
+            super(target);
+            this.latency = latency;
+            this.statementLatency = statementLatency;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            pause(latency);
+            Connection connection = super.getConnection();
+            if (statementLatency.isZero()) {
+                return connection;
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            pause(statementLatency);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        private static void pause(Duration duration) throws SQLException {
+            if (duration.isZero()) {
+                return;
+            }
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Ожидание базы прервано", e);
+            }
+        }
+    }
+}
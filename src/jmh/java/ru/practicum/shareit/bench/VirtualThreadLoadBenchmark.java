@@ -0,0 +1,96 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка по настоящему HTTP на {@code GET /bookings/{id}} при числе одновременных клиентов больше
+ * пула Tomcat (200 потоков): сравнивает пропускную способность и хвост задержки на платформенных
+ * и виртуальных потоках при медленной базе.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+public class VirtualThreadLoadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ThreadingState extends ShareItState {
+
+        @Param({"false", "true"})
+        public boolean virtualThreads;
+
+        @Param("20")
+        public int dbLatencyMs;
+
+        @Override
+        protected void customize(List<String> args) {
+            args.add("--spring.threads.virtual.enabled=" + virtualThreads);
+            args.add("--bench.db-latency=" + dbLatencyMs + "ms");
+            args.add("--spring.datasource.hikari.maximum-pool-size=50");
+        }
+
+        @Override
+        protected Class<?>[] sources() {
+            return new Class<?>[]{ShareItApp.class, SlowDatabaseConfiguration.class};
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Client {
+        private HttpClient httpClient;
+        private URI baseUri;
+        private Dataset dataset;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadingState app) {
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            baseUri = URI.create("http://localhost:" + app.port());
+            dataset = app.dataset();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            httpClient.close();
+        }
+    }
+
+    @Benchmark
+    public int getBooking(Client client) throws IOException, InterruptedException {
+        long bookingId = client.dataset.randomBookingId();
+        HttpRequest request = HttpRequest.newBuilder(client.baseUri.resolve("/bookings/" + bookingId))
+                .header(ShareItState.USER_HEADER, String.valueOf(client.dataset.bookerOf(bookingId)))
+                .GET()
+                .build();
+        int status = client.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Неожиданный статус " + status + " для брони " + bookingId);
+        }
+        return status;
+    }
+}
@@ -1,64 +1,101 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import java.util.Collection;
+import java.util.List;
 
 
 @RestController
 @RequestMapping(path = "/bookings")
-@Slf4j
 @RequiredArgsConstructor
 @Validated
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @PostMapping
     public ResponseEntity<BookingResponseDto> create(@RequestBody @Validated BookingRequestDto bookingRequestDto,
                                                      @RequestHeader ("X-Sharer-User-Id") Long userId) {
-        log.info(">>> POST /bookings | userId: {}, request: {}", userId, bookingRequestDto);
         BookingResponseDto response = bookingService.create(bookingRequestDto, userId);
-        log.info("<<< POST /bookings | Создано бронирование: {}", response);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<Collection<BookingResponseDto>> getAllBookingsByBooker(@RequestHeader ("X-Sharer-User-Id") Long userId) {
-        log.info(">>> GET /bookings | userId: {}", userId);
-        Collection<BookingResponseDto> response = bookingService.getAllBookingsByBooker(userId);
-        log.info("<<< GET /bookings | Отданы бронирования: {}", response);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Collection<BookingResponseDto>> getAllBookingsByBooker(
+            @RequestHeader ("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(required = false) String cursor) {
+        KeysetPage<BookingResponseDto> page = bookingService.getAllBookingsByBooker(userId, BookingState.from(state),
+                from, size, cursor);
+        return toResponse(page);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Collection<BookingResponseDto>> getAllBookingsByOwner(@RequestHeader ("X-Sharer-User-Id") Long userId) {
-        log.info(">>> GET /bookings/owner | userId: {}", userId);
-        Collection<BookingResponseDto> response = bookingService.getAllBookingsByItOwner(userId);
-        log.info("<<< GET /bookings/owner | Отдано бронирование: {}", response);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Collection<BookingResponseDto>> getAllBookingsByOwner(
+            @RequestHeader ("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(required = false) String cursor) {
+        KeysetPage<BookingResponseDto> page = bookingService.getAllBookingsByItOwner(userId, BookingState.from(state),
+                from, size, cursor);
+        return toResponse(page);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+            @RequestHeader ("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        StreamingResponseBody body = bookingExportService.exportOwnerBookings(userId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<BookingResponseDto> getById(@PathVariable Long id,
                                                   @RequestHeader ("X-Sharer-User-Id") Long userId) {
-        log.info(">>> GET /bookings/{id} | userId: {}, booking: {}", userId, id);
         BookingResponseDto response = bookingService.get(id, userId);
-        log.info("<<< GET /bookings/{id} | Отдано бронирование: {}", response);
         return ResponseEntity.ok(response);
     }
 
     @PatchMapping("/{id}")
     public ResponseEntity<BookingResponseDto> approve(@PathVariable Long id,
             @RequestHeader ("X-Sharer-User-Id") Long userId) {
-        log.info(">>> PATCH /bookings/{id} | userId: {}, booking: {}", userId, id);
         BookingResponseDto response = bookingService.approve(userId, id);
-        log.info("<<< PATCH /bookings/{id} | Одобрено бронирование: {}", id);
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<List<BookingDecisionResult>> decide(
+            @RequestBody @Validated BookingDecisionRequestDto request,
+            @RequestHeader ("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.decide(userId, request));
+    }
+
+    private ResponseEntity<Collection<BookingResponseDto>> toResponse(KeysetPage<BookingResponseDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.content());
+    }
+
 }
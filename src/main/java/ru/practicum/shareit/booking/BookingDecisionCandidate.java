@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Всё, что нужно для проверки решения владельца, без загрузки бронирования и вещи как сущностей.
+ */
+public record BookingDecisionCandidate(Long id, Long itemId, Long ownerId, Long bookerId, BookingStatus status,
+                                       LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionRequestDto {
+    @NotEmpty(message = "Список бронирований не может быть пустым")
+    @Size(max = 1000, message = "За один запрос можно обработать не больше 1000 бронирований")
+    private List<@NotNull(message = "ID бронирования обязательно") Long> bookingIds;
+
+    @NotNull(message = "Решение обязательно")
+    private Boolean approved;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Итог решения владельца по одному бронированию: новый статус либо причина отказа.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookingDecisionResult(Long bookingId, BookingStatus status, String error) {
+
+    public static BookingDecisionResult applied(Long bookingId, BookingStatus status) {
+        return new BookingDecisionResult(bookingId, status, null);
+    }
+
+    public static BookingDecisionResult failed(Long bookingId, String error) {
+        return new BookingDecisionResult(bookingId, null, error);
+    }
+}
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class BookingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -30,6 +31,13 @@ public class BookingEntity {
     @JoinColumn(name = "item_id", nullable = false)
     private ItemEntity item;
 
+    /**
+     * Владелец вещи на момент брони. Копия {@code item.owner.id}, чтобы страница владельца шла по своему индексу
+     * без join с items; владелец у вещи не меняется, поэтому поле только заполняется при создании.
+     */
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Long ownerId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private UserEntity booker;
@@ -38,4 +46,11 @@ public class BookingEntity {
     @Column(name = "status", nullable = false)
     private BookingStatus status;
 
+    @PrePersist
+    void copyItemOwner() {
+        if (ownerId == null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
+
 }
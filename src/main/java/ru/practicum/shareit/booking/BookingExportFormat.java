@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+public enum BookingExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    BookingExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static BookingExportFormat from(String format) {
+        for (BookingExportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Неизвестный формат выгрузки: " + format);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка выгрузки истории бронирований. Строится выражением конструктора в запросе,
+ * поэтому не попадает в контекст персистентности и не накапливается в памяти.
+ */
+public record BookingExportRow(Long id,
+                               LocalDateTime start,
+                               LocalDateTime end,
+                               BookingStatus status,
+                               Long itemId,
+                               String itemName,
+                               Long bookerId) {
+}
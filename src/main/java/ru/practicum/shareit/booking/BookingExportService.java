@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка истории бронирований владельца курсором базы прямо в ответ.
+ */
+@Slf4j
+@Service
+public class BookingExportService {
+
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BookingExportWriter exportWriter;
+
+    public BookingExportService(BookingRepository bookingRepository,
+                                UserService userService,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.userService = userService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exportWriter = new BookingExportWriter(objectMapper.getFactory());
+    }
+
+    public StreamingResponseBody exportOwnerBookings(Long ownerId, BookingExportFormat format) {
+        if (!userService.userExistsById(ownerId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<BookingExportRow> rows = bookingRepository.streamExportRowsByOwnerId(ownerId)) {
+                long count = exportWriter.write(rows.iterator(), format, out);
+                log.info("<<< Выгрузка бронирований владельца {}: {} строк", ownerId, count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Пишет строки выгрузки по одной, ничего не накапливая.
+ * Первая строка сбрасывается в поток сразу, дальше запись идёт через буфер фиксированного размера.
+ */
+public class BookingExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId";
+
+    private final JsonFactory jsonFactory;
+
+    public BookingExportWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public long write(Iterator<BookingExportRow> rows, BookingExportFormat format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = switch (format) {
+            case NDJSON -> writeNdjson(rows, writer);
+            case CSV -> writeCsv(rows, writer);
+        };
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<BookingExportRow> rows, Writer writer) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Строки разделяет только перевод строки: корневой разделитель по умолчанию — пробел
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                BookingExportRow row = rows.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.id());
+                generator.writeStringField("start", row.start().toString());
+                generator.writeStringField("end", row.end().toString());
+                generator.writeStringField("status", row.status().name());
+                generator.writeNumberField("itemId", row.itemId());
+                generator.writeStringField("itemName", row.itemName());
+                generator.writeNumberField("bookerId", row.bookerId());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++count == 1) {
+                    generator.flush();
+                    writer.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<BookingExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        writer.flush();
+        long count = 0;
+        while (rows.hasNext()) {
+            BookingExportRow row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(row.start().toString());
+            writer.write(',');
+            writer.write(row.end().toString());
+            writer.write(',');
+            writer.write(row.status().name());
+            writer.write(',');
+            writer.write(String.valueOf(row.itemId()));
+            writer.write(',');
+            writeCsvValue(writer, row.itemName());
+            writer.write(',');
+            writer.write(String.valueOf(row.bookerId()));
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
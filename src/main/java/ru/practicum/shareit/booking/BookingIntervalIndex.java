@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Активные (WAITING/APPROVED) и ещё не закончившиеся интервалы бронирований по вещам,
+ * зафиксированные этим экземпляром приложения.
+ * Только подсказка: отказ, принятый другим экземпляром, сюда не доходит, поэтому ни наличие, ни отсутствие
+ * пересечения здесь ничего не гарантирует. Решение принимает {@link BookingService} запросом к базе под блокировкой
+ * вещи, а устаревшие интервалы, на которые он наткнулся, удаляет через {@link #removeOverlapping}.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private final Map<Long, ConcurrentSkipListMap<LocalDateTime, Interval>> intervalsByItem =
+            new ConcurrentHashMap<>();
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ConcurrentSkipListMap<LocalDateTime, Interval> intervals = intervalsByItem.get(itemId);
+        if (intervals == null) {
+            return false;
+        }
+        pruneEnded(intervals, LocalDateTime.now());
+        Map.Entry<LocalDateTime, Interval> before = intervals.lowerEntry(end);
+        return before != null && before.getValue().end().isAfter(start);
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        ConcurrentSkipListMap<LocalDateTime, Interval> intervals =
+                intervalsByItem.computeIfAbsent(itemId, key -> new ConcurrentSkipListMap<>());
+        pruneEnded(intervals, LocalDateTime.now());
+        intervals.put(start, new Interval(bookingId, end));
+    }
+
+    public void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        intervalsByItem.computeIfPresent(itemId, (key, intervals) -> {
+            intervals.computeIfPresent(start, (intervalStart, interval) ->
+                    interval.bookingId().equals(bookingId) ? null : interval);
+            return intervals.isEmpty() ? null : intervals;
+        });
+    }
+
+    /**
+     * Удаляет интервалы вещи, пересекающиеся с {@code [start, end)}: база показала, что их брони уже не активны.
+     */
+    public void removeOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        intervalsByItem.computeIfPresent(itemId, (key, intervals) -> {
+            intervals.headMap(end).entrySet().removeIf(entry -> entry.getValue().end().isAfter(start));
+            return intervals.isEmpty() ? null : intervals;
+        });
+    }
+
+    /**
+     * Интервалы одной вещи не пересекаются, поэтому упорядочены и по началу, и по концу:
+     * закончившиеся всегда лежат в голове карты.
+     */
+    private static void pruneEnded(ConcurrentSkipListMap<LocalDateTime, Interval> intervals, LocalDateTime now) {
+        Map.Entry<LocalDateTime, Interval> first = intervals.firstEntry();
+        while (first != null && !first.getValue().end().isAfter(now)) {
+            intervals.remove(first.getKey(), first.getValue());
+            first = intervals.firstEntry();
+        }
+    }
+
+    private record Interval(Long bookingId, LocalDateTime end) {
+    }
+}
@@ -14,6 +14,18 @@ public interface BookingMapper {
     @Mapping(target = "item", source = "item")
     BookingResponseDto toResponseDto(BookingEntity entity);
 
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "booker.name", source = "bookerName")
+    @Mapping(target = "booker.email", source = "bookerEmail")
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    @Mapping(target = "item.description", source = "itemDescription")
+    @Mapping(target = "item.available", source = "itemAvailable")
+    @Mapping(target = "item.lastBooking", ignore = true)
+    @Mapping(target = "item.nextBooking", ignore = true)
+    @Mapping(target = "item.comments", ignore = true)
+    BookingResponseDto toResponseDto(BookingView view);
+
     @Mapping(target = "id", source = "id")
     @Mapping(target = "bookerId", source = "booker.id")
     BookingShortDto toShortDto(BookingEntity entity);
@@ -1,16 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<BookingEntity, Long>  {
+public interface BookingRepository extends JpaRepository<BookingEntity, Long>, BookingRepositoryCustom {
 
     List<BookingEntity> getBookingEntitiesByBookerId(Long bookerId);
 
@@ -19,6 +25,49 @@ public interface BookingRepository extends JpaRepository<BookingEntity, Long>  {
     @Query("SELECT b FROM BookingEntity b WHERE b.item.owner.id = :ownerId")
     List<BookingEntity> findByOwnerId(@Param("ownerId") Long ownerId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new ru.practicum.shareit.booking.BookingExportRow(" +
+            "b.id, b.startDate, b.endDate, b.status, i.id, i.name, b.booker.id) " +
+            "FROM BookingEntity b JOIN b.item i " +
+            "WHERE b.ownerId = :ownerId " +
+            "ORDER BY b.startDate DESC, b.id DESC")
+    Stream<BookingExportRow> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(" +
+            "b.id, b.startDate, b.endDate, b.status, bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available, i.owner.id) " +
+            "FROM BookingEntity b JOIN b.item i JOIN b.booker bk " +
+            "WHERE b.id = :id")
+    Optional<BookingView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingTimelineRow(b.item.id, b.id, b.booker.id, b.startDate, b.endDate) " +
+            "FROM BookingEntity b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "ORDER BY b.item.id, b.startDate")
+    List<BookingTimelineRow> findApprovedTimelineRows(@Param("itemIds") Collection<? extends Long> itemIds);
+
+    @Query("SELECT DISTINCT b.item.id FROM BookingEntity b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND b.startDate < :end AND b.endDate > :start")
+    List<Long> findItemIdsBookedBetween(@Param("itemIds") Collection<Long> itemIds,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingDecisionCandidate(" +
+            "b.id, i.id, i.owner.id, b.booker.id, b.status, b.startDate, b.endDate) " +
+            "FROM BookingEntity b JOIN b.item i " +
+            "WHERE b.id IN :ids")
+    List<BookingDecisionCandidate> findDecisionCandidates(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingEntity b SET b.status = :status WHERE b.id IN :ids AND b.status = :expected")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("expected") BookingStatus expected,
+                     @Param("status") BookingStatus status);
+
     Optional<BookingEntity> getBookingEntityByItemIdAndBookerIdAndStatus(Long itemId, Long bookerId, BookingStatus status);
 
     Optional<BookingEntity> findByItem_IdAndBooker_IdAndStatus(
@@ -41,4 +90,20 @@ public interface BookingRepository extends JpaRepository<BookingEntity, Long>  {
             LocalDateTime endDate
     );
 
+    @Query("SELECT COUNT(b) > 0 FROM BookingEntity b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "AND b.startDate < :end AND b.endDate > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("SELECT b FROM BookingEntity b " +
+            "WHERE b.item.id IN :itemIds AND b.status IN :statuses " +
+            "AND b.startDate < :to AND b.endDate > :from")
+    List<BookingEntity> findOverlappingByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("statuses") Collection<BookingStatus> statuses);
+
 }
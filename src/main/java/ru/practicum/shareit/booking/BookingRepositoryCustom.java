@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Бронирования пользователя в состоянии {@code state} на момент {@code now},
+     * упорядоченные по (start_date DESC, id DESC).
+     * Если передан {@code after}, выборка продолжается строго после него, а {@code offset} игнорируется.
+     */
+    List<BookingView> findPageByBooker(Long bookerId, BookingState state, LocalDateTime now,
+                                       KeysetCursor after, int offset, int limit);
+
+    List<BookingView> findPageByOwner(Long ownerId, BookingState state, LocalDateTime now,
+                                      KeysetCursor after, int offset, int limit);
+
+}
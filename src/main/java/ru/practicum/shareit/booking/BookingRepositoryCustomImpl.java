@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final String SELECT = "SELECT new ru.practicum.shareit.booking.BookingView(" +
+            "b.id, b.startDate, b.endDate, b.status, bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available, i.owner.id) " +
+            "FROM BookingEntity b " +
+            "JOIN b.item i " +
+            "JOIN b.booker bk ";
+    private static final String AFTER_CURSOR = "AND (b.startDate < :cursorStart " +
+            "OR (b.startDate = :cursorStart AND b.id < :cursorId)) ";
+    private static final String ORDER = "ORDER BY b.startDate DESC, b.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findPageByBooker(Long bookerId, BookingState state, LocalDateTime now,
+                                              KeysetCursor after, int offset, int limit) {
+        return findPage("b.booker.id", "c.booker.id", bookerId, state, now, after, offset, limit);
+    }
+
+    @Override
+    public List<BookingView> findPageByOwner(Long ownerId, BookingState state, LocalDateTime now,
+                                             KeysetCursor after, int offset, int limit) {
+        return findPage("b.ownerId", "c.ownerId", ownerId, state, now, after, offset, limit);
+    }
+
+    /**
+     * @param scope         путь к пользователю в основной выборке
+     * @param notEndedScope тот же путь от брони {@code c} в подзапросе незавершённых броней для CURRENT
+     */
+    private List<BookingView> findPage(String scope, String notEndedScope, Long userId, BookingState state,
+                                       LocalDateTime now, KeysetCursor after, int offset, int limit) {
+        String jpql = SELECT + "WHERE " + scope + " = :userId " + statePredicate(state, notEndedScope)
+                + (after != null ? AFTER_CURSOR : "") + ORDER;
+        TypedQuery<BookingView> query = entityManager.createQuery(jpql, BookingView.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        switch (state) {
+            case CURRENT, PAST, FUTURE -> query.setParameter("now", now);
+            case WAITING -> query.setParameter("status", BookingStatus.WAITING);
+            case REJECTED -> query.setParameter("status", BookingStatus.REJECTED);
+            default -> {
+            }
+        }
+        if (after != null) {
+            query.setParameter("cursorStart", after.timestamp())
+                    .setParameter("cursorId", after.id());
+        } else {
+            query.setFirstResult(offset);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Каждое состояние превращается в отдельный предикат, а не в общий запрос с параметрами-флагами,
+     * чтобы планировщик мог выбрать под него свой индекс (см. индексы bookings в db/migration/postgresql).
+     * Для CURRENT условие на конец вынесено в подзапрос: при двух диапазонах в одном WHERE планировщик
+     * предпочитает индекс по start_date, совпадающий с сортировкой, и проходит по нему всю прошлую историю
+     * пользователя, а подзапрос по (…, end_date) выбирает только незавершённые брони.
+     */
+    private static String statePredicate(BookingState state, String notEndedScope) {
+        return switch (state) {
+            case ALL -> "";
+            case CURRENT -> "AND b.startDate <= :now AND b.id IN (SELECT c.id FROM BookingEntity c WHERE "
+                    + notEndedScope + " = :userId AND c.endDate > :now) ";
+            case PAST -> "AND b.endDate < :now ";
+            case FUTURE -> "AND b.startDate > :now ";
+            case WAITING, REJECTED -> "AND b.status = :status ";
+        };
+    }
+}
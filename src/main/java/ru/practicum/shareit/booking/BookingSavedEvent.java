@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется при создании бронирования и смене его статуса, обрабатывается после фиксации транзакции.
+ */
+public record BookingSavedEvent(Long itemId, Long bookingId, Long bookerId,
+                                LocalDateTime start, LocalDateTime end, BookingStatus status) {
+
+    public static BookingSavedEvent of(BookingEntity booking) {
+        return new BookingSavedEvent(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                booking.getStartDate(), booking.getEndDate(), booking.getStatus());
+    }
+}
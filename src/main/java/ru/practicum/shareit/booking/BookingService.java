@@ -1,25 +1,51 @@
 package ru.practicum.shareit.booking;
 
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.comment.CommentService;
+import ru.practicum.shareit.comment.CommentResponseDto;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.*;
+import ru.practicum.shareit.notification.BookingNotificationType;
+import ru.practicum.shareit.notification.BookingOutbox;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Транзакции охватывают только работу с базой: запись идёт в {@link TransactionTemplate},
+ * чтение — в read-only {@link TransactionTemplate}, где все запросы одного ответа видят один снимок,
+ * а сборка ответов выполняется уже после возврата соединения в пул.
+ */
 @Service
-@RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 @Slf4j
-@Transactional
 public class BookingService {
 
     private final BookingRepository bookingRepository;
@@ -27,11 +53,50 @@ public class BookingService {
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemBookingLocks itemBookingLocks;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final CommentService commentService;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BookingOutbox bookingOutbox;
 
+    public BookingService(BookingRepository bookingRepository,
+                          BookingMapper bookingMapper,
+                          UserService userService,
+                          ItemRepository itemRepository,
+                          UserRepository userRepository,
+                          ItemBookingLocks itemBookingLocks,
+                          BookingIntervalIndex bookingIntervalIndex,
+                          CommentService commentService,
+                          BookingTimelineCache bookingTimelineCache,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          BookingOutbox bookingOutbox) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.userService = userService;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemBookingLocks = itemBookingLocks;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.commentService = commentService;
+        this.bookingTimelineCache = bookingTimelineCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bookingOutbox = bookingOutbox;
+    }
 
     public BookingResponseDto create(BookingRequestDto bookingRequestDto, Long userId) {
         validateBookingDates(bookingRequestDto);
+        BookingEntity savedEntity = transactionTemplate.execute(status -> book(bookingRequestDto, userId));
+        return bookingMapper.toResponseDto(savedEntity);
+    }
 
+    private BookingEntity book(BookingRequestDto bookingRequestDto, Long userId) {
         UserEntity bookerEntity = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
@@ -46,31 +111,185 @@ public class BookingService {
             throw new ValidationException("Вещь недоступна для бронирования");
         }
 
+        LocalDateTime start = bookingRequestDto.getStart();
+        LocalDateTime end = bookingRequestDto.getEnd();
+        boolean indexHit = bookingIntervalIndex.overlaps(itemEntity.getId(), start, end);
+        itemBookingLocks.lockUntilTransactionEnd(itemEntity.getId());
+        if (bookingRepository.existsOverlapping(itemEntity.getId(), start, end, BookingStatus.ACTIVE)) {
+            throw new ConflictException("Вещь уже забронирована на эти даты");
+        }
+        if (indexHit) {
+            // Бронь, которую помнит индекс, отклонили на другом экземпляре
+            log.debug("Индекс интервалов вещи {} устарел для [{}, {}), запись удалена", itemEntity.getId(), start, end);
+            bookingIntervalIndex.removeOverlapping(itemEntity.getId(), start, end);
+        }
+
         BookingEntity bookingEntity = BookingEntity.builder()
-                .startDate(bookingRequestDto.getStart())
-                .endDate(bookingRequestDto.getEnd())
+                .startDate(start)
+                .endDate(end)
                 .item(itemEntity)
                 .booker(bookerEntity)
                 .status(BookingStatus.WAITING)
                 .build();
 
         BookingEntity savedEntity = bookingRepository.save(bookingEntity);
-        return bookingMapper.toResponseDto(savedEntity);
+        eventPublisher.publishEvent(BookingSavedEvent.of(savedEntity));
+        bookingOutbox.enqueue(BookingNotificationType.CREATED, savedEntity.getId(), itemEntity.getId(),
+                itemEntity.getOwner().getId(), bookerEntity.getId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookingIntervalIndex.add(itemEntity.getId(), savedEntity.getId(), start, end);
+            }
+        });
+        return savedEntity;
     }
 
+    /**
+     * Подтверждение одной брони идёт тем же путём, что и пакетное: только из WAITING, с проверкой пересечения
+     * с подтверждёнными бронями под блокировкой вещи и сменой статуса через {@link BookingRepository#updateStatus}.
+     */
     public BookingResponseDto approve(Long userId, Long bookingId) {
-        BookingEntity booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new ValidationException(
-                    "Подтверждать бронирование может только владелец вещи");
+        BookingRows rows = transactionTemplate.execute(status -> {
+            BookingDecisionCandidate booking = bookingRepository.findDecisionCandidates(List.of(bookingId)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+            if (!booking.ownerId().equals(userId)) {
+                throw new ValidationException(
+                        "Подтверждать бронирование может только владелец вещи");
+            }
+            if (booking.status() != BookingStatus.WAITING) {
+                throw new ValidationException("Решение по бронированию уже принято");
+            }
+            Map<Long, String> errors = new HashMap<>();
+            if (rejectConflicting(List.of(booking), errors).isEmpty()) {
+                throw new ConflictException(errors.get(bookingId));
+            }
+            commitDecision(List.of(booking), BookingStatus.APPROVED);
+            return loadRows(List.of(bookingRepository.findViewById(bookingId).orElseThrow()), 1);
+        });
+        return toResponseDtos(rows).get(0);
+    }
+
+    /**
+     * Решение владельца сразу по пачке бронирований. Права проверяются одним запросом с join вещи,
+     * статус меняется одним UPDATE. При подтверждении новые интервалы за один проход сверяются
+     * между собой и с уже подтверждёнными бронями тех же вещей: из пересекающихся подтверждается первое по началу.
+     * Отказ по отдельным id не откатывает остальные, результат возвращается по каждому id в порядке запроса.
+     */
+    public List<BookingDecisionResult> decide(Long userId, BookingDecisionRequestDto request) {
+        Set<Long> bookingIds = new LinkedHashSet<>(request.getBookingIds());
+        BookingStatus decision = Boolean.TRUE.equals(request.getApproved())
+                ? BookingStatus.APPROVED
+                : BookingStatus.REJECTED;
+        Map<Long, String> errors = transactionTemplate.execute(status -> applyDecision(userId, bookingIds, decision));
+        log.info("Владелец {}: {} бронирований переведено в {}, отказано {}",
+                userId, bookingIds.size() - errors.size(), decision, errors.size());
+        return bookingIds.stream()
+                .map(id -> errors.containsKey(id)
+                        ? BookingDecisionResult.failed(id, errors.get(id))
+                        : BookingDecisionResult.applied(id, decision))
+                .toList();
+    }
+
+    /**
+     * Проверки и смена статуса внутри транзакции; возвращает причины отказа по id.
+     */
+    private Map<Long, String> applyDecision(Long userId, Set<Long> bookingIds, BookingStatus decision) {
+        if (!userService.userExistsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        Map<Long, BookingDecisionCandidate> candidates = bookingRepository.findDecisionCandidates(bookingIds).stream()
+                .collect(Collectors.toMap(BookingDecisionCandidate::id, Function.identity()));
+        Map<Long, String> errors = new HashMap<>();
+        List<BookingDecisionCandidate> accepted = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            BookingDecisionCandidate candidate = candidates.get(bookingId);
+            if (candidate == null) {
+                errors.put(bookingId, "Бронирование не найдено");
+            } else if (!candidate.ownerId().equals(userId)) {
+                errors.put(bookingId, "Подтверждать бронирование может только владелец вещи");
+            } else if (candidate.status() != BookingStatus.WAITING) {
+                errors.put(bookingId, "Решение по бронированию уже принято");
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        if (decision == BookingStatus.APPROVED && !accepted.isEmpty()) {
+            accepted = rejectConflicting(accepted, errors);
         }
 
-        booking.setStatus(BookingStatus.APPROVED);
-        BookingEntity updatedBooking = bookingRepository.save(booking);
+        if (!accepted.isEmpty()) {
+            commitDecision(accepted, decision);
+        }
+        return errors;
+    }
+
+    /**
+     * Переводит проверенные брони из WAITING в {@code decision}: статус, события, уведомления
+     * и после коммита — индекс интервалов.
+     */
+    private void commitDecision(List<BookingDecisionCandidate> accepted, BookingStatus decision) {
+        List<Long> acceptedIds = accepted.stream().map(BookingDecisionCandidate::id).toList();
+        int updated = bookingRepository.updateStatus(acceptedIds, BookingStatus.WAITING, decision);
+        if (updated != acceptedIds.size()) {
+            throw new ConflictException("Часть бронирований изменилась параллельно, повторите запрос");
+        }
+        accepted.forEach(booking -> eventPublisher.publishEvent(new BookingSavedEvent(booking.itemId(),
+                booking.id(), booking.bookerId(), booking.start(), booking.end(), decision)));
+        bookingOutbox.enqueueAll(decision == BookingStatus.APPROVED
+                ? BookingNotificationType.APPROVED
+                : BookingNotificationType.REJECTED, acceptedIds);
+        if (decision == BookingStatus.REJECTED) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accepted.forEach(booking ->
+                            bookingIntervalIndex.remove(booking.itemId(), booking.id(), booking.start()));
+                }
+            });
+        }
+    }
 
-        return bookingMapper.toResponseDto(updatedBooking);
+    /**
+     * Проход по кандидатам в порядке начала внутри каждой вещи: занятые интервалы копятся в карте,
+     * и кандидат, пересекающийся с уже занятым, получает отказ.
+     */
+    private List<BookingDecisionCandidate> rejectConflicting(List<BookingDecisionCandidate> candidates,
+                                                             Map<Long, String> errors) {
+        Set<Long> itemIds = new HashSet<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (BookingDecisionCandidate candidate : candidates) {
+            itemIds.add(candidate.itemId());
+            from = candidate.start().isBefore(from) ? candidate.start() : from;
+            to = candidate.end().isAfter(to) ? candidate.end() : to;
+        }
+        itemBookingLocks.lockUntilTransactionEnd(itemIds);
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> occupied = new HashMap<>();
+        for (BookingEntity approved : bookingRepository.findOverlappingByItemIds(
+                itemIds, from, to, EnumSet.of(BookingStatus.APPROVED))) {
+            occupied.computeIfAbsent(approved.getItem().getId(), key -> new TreeMap<>())
+                    .put(approved.getStartDate(), approved.getEndDate());
+        }
 
+        List<BookingDecisionCandidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparing(BookingDecisionCandidate::itemId)
+                .thenComparing(BookingDecisionCandidate::start)
+                .thenComparing(BookingDecisionCandidate::id));
+        List<BookingDecisionCandidate> accepted = new ArrayList<>(sorted.size());
+        for (BookingDecisionCandidate candidate : sorted) {
+            NavigableMap<LocalDateTime, LocalDateTime> intervals =
+                    occupied.computeIfAbsent(candidate.itemId(), key -> new TreeMap<>());
+            Map.Entry<LocalDateTime, LocalDateTime> before = intervals.lowerEntry(candidate.end());
+            if (before != null && before.getValue().isAfter(candidate.start())) {
+                errors.put(candidate.id(), "Вещь уже забронирована на эти даты");
+                continue;
+            }
+            intervals.put(candidate.start(), candidate.end());
+            accepted.add(candidate);
+        }
+        return accepted;
     }
 
     private void validateBookingDates(BookingRequestDto requestDto) {
@@ -87,68 +306,115 @@ public class BookingService {
     }
 
     public BookingResponseDto get(Long bookingId, Long userId) {
-        BookingEntity booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        BookingRows rows = readOnlyTransaction.execute(status -> {
+            BookingView booking = bookingRepository.findViewById(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
-        boolean isBooker = booking.getBooker().getId().equals(userId);
-        boolean isOwner = booking.getItem().getOwner().getId().equals(userId);
+            boolean isBooker = booking.bookerId().equals(userId);
+            boolean isOwner = booking.ownerId().equals(userId);
 
-        if (!isBooker && !isOwner) {
-            throw new ForbiddenException("Доступ запрещен");
-        }
+            if (!isBooker && !isOwner) {
+                throw new ForbiddenException("Доступ запрещен");
+            }
+            return loadRows(List.of(booking), 1);
+        });
+        return toResponseDtos(rows).get(0);
+    }
 
-        return bookingMapper.toResponseDto(booking);
+    public KeysetPage<BookingResponseDto> getAllBookingsByBooker(Long userId, BookingState state,
+                                                                 int from, int size, String cursor) {
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        BookingRows rows = readOnlyTransaction.execute(status -> {
+            if (!userService.userExistsById(userId)) {
+                throw new NotFoundException("Пользователь не найден");
+            }
+            return loadRows(bookingRepository.findPageByBooker(userId, state, LocalDateTime.now(),
+                    after, from, size + 1), size);
+        });
+        return new KeysetPage<>(toResponseDtos(rows), rows.nextCursor());
     }
 
-    public Collection<BookingResponseDto> getAllBookingsByBooker(Long userId) {
-        if (!userService.userExistsById(userId)) {
-            throw new NotFoundException("Пользователь не найден");
+    public KeysetPage<BookingResponseDto> getAllBookingsByItOwner(Long userId, BookingState state,
+                                                                  int from, int size, String cursor) {
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        BookingRows rows = readOnlyTransaction.execute(status -> {
+            if (!userService.userExistsById(userId)) {
+                throw new NotFoundException("Пользователь не найден");
+            }
+            return loadRows(bookingRepository.findPageByOwner(userId, state, LocalDateTime.now(),
+                    after, from, size + 1), size);
+        });
+        return new KeysetPage<>(toResponseDtos(rows), rows.nextCursor());
+    }
+
+    /**
+     * Обрезает выборку до {@code size} строк и подтягивает комментарии их вещей одним запросом на всю страницу,
+     * а не ленивой коллекцией на каждую бронь. Вызывается внутри транзакции чтения.
+     */
+    private BookingRows loadRows(List<BookingView> bookings, int size) {
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            BookingView last = bookings.get(size - 1);
+            nextCursor = new KeysetCursor(last.start(), last.id()).encode();
         }
-        List<BookingEntity> bookingEntities = bookingRepository.findByBooker_Id(userId);
+        if (bookings.isEmpty()) {
+            return new BookingRows(bookings, Map.of(), null);
+        }
+        List<Long> itemIds = bookings.stream()
+                .map(BookingView::itemId)
+                .distinct()
+                .collect(Collectors.toList());
+        return new BookingRows(bookings, commentService.findPreviews(itemIds), nextCursor);
+    }
 
-        return bookingEntities.stream()
-                .map(bookingMapper::toResponseDto)
+    private List<BookingResponseDto> toResponseDtos(BookingRows rows) {
+        return rows.bookings().stream()
+                .map(booking -> {
+                    BookingResponseDto dto = bookingMapper.toResponseDto(booking);
+                    dto.getItem().setComments(rows.comments().getOrDefault(booking.itemId(), Collections.emptyList()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
-    public Collection<BookingResponseDto> getAllBookingsByItOwner(Long userId) {
-        if (!userService.userExistsById(userId)) {
-            throw new NotFoundException("Пользователь не найден");
-        }
+    /**
+     * Последняя, следующая и текущая подтверждённые брони берутся из {@link BookingTimelineCache};
+     * к базе обращается только промах кэша, одним запросом на все вещи.
+     */
+    public BookingShortDto findLastBooking(Long itemId, LocalDateTime now) {
+        return bookingTimelineCache.get(itemId).last(now);
+    }
 
-        List<BookingEntity> bookingEntities = bookingRepository.findByOwnerId(userId);
-        return bookingEntities.stream()
-                .map(bookingMapper::toResponseDto)
-                .collect(Collectors.toList());
+    public BookingShortDto findNextBooking(Long itemId, LocalDateTime now) {
+        return bookingTimelineCache.get(itemId).next(now);
     }
 
-    public BookingShortDto findLastBooking(Long itemId) {
-        Optional<BookingEntity> bookingOpt = bookingRepository
-                .findFirstByItemIdAndEndDateBeforeOrderByEndDateDesc(
-                        itemId,
-                        LocalDateTime.now()
-                );
+    public BookingShortDto findCurrentBooking(Long itemId, LocalDateTime now) {
+        return bookingTimelineCache.get(itemId).current(now);
+    }
 
-        return bookingOpt.map(bookingMapper::toShortDto).orElse(null);
+    public Map<Long, BookingShortDto> findLastBookings(Collection<Long> itemIds, LocalDateTime now) {
+        return collect(itemIds, timeline -> timeline.last(now));
     }
 
-    public BookingShortDto findNextBooking(Long itemId) {
-        Optional<BookingEntity> bookingOpt = bookingRepository
-                .findFirstByItemIdAndStartDateAfterOrderByStartDateAsc(
-                        itemId,
-                        LocalDateTime.now()
-                );
-        return bookingOpt.map(bookingMapper::toShortDto).orElse(null);
+    public Map<Long, BookingShortDto> findNextBookings(Collection<Long> itemIds, LocalDateTime now) {
+        return collect(itemIds, timeline -> timeline.next(now));
     }
 
-    public BookingShortDto findCurrentBooking(Long itemId) {
-        Optional<BookingEntity> bookingOpt = bookingRepository
-                .findFirstByItemIdAndStartDateBeforeAndEndDateAfter(
-                        itemId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now()
-                );
+    private Map<Long, BookingShortDto> collect(Collection<Long> itemIds,
+                                               Function<BookingTimeline, BookingShortDto> lookup) {
+        Map<Long, BookingShortDto> bookings = new HashMap<>();
+        bookingTimelineCache.getAll(itemIds).forEach((itemId, timeline) -> {
+            BookingShortDto booking = lookup.apply(timeline);
+            if (booking != null) {
+                bookings.put(itemId, booking);
+            }
+        });
+        return bookings;
+    }
 
-        return bookingOpt.map(bookingMapper::toShortDto).orElse(null);
+    private record BookingRows(List<BookingView> bookings, Map<Long, List<CommentResponseDto>> comments,
+                               String nextCursor) {
     }
 }
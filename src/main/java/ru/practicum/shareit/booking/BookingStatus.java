@@ -1,8 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    /**
+     * Статусы, при которых бронирование занимает вещь и не может пересекаться с другими.
+     */
+    public static final Set<BookingStatus> ACTIVE = EnumSet.of(WAITING, APPROVED);
 }
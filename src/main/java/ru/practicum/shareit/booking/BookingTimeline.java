@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Подтверждённые бронирования одной вещи в массивах, упорядоченных по началу.
+ * Подтверждённые интервалы вещи не пересекаются (ограничение excl_bookings_item_overlap),
+ * поэтому концы упорядочены так же, и последняя, следующая и текущая брони находятся двоичным поиском.
+ * Объект неизменяем: добавление и удаление возвращают новую копию.
+ */
+final class BookingTimeline {
+
+    static final BookingTimeline EMPTY =
+            new BookingTimeline(new long[0], new long[0], new LocalDateTime[0], new LocalDateTime[0]);
+
+    private final long[] ids;
+    private final long[] bookerIds;
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    private BookingTimeline(long[] ids, long[] bookerIds, LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.ids = ids;
+        this.bookerIds = bookerIds;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @param rows брони одной вещи, упорядоченные по началу
+     */
+    static BookingTimeline of(List<BookingTimelineRow> rows) {
+        if (rows.isEmpty()) {
+            return EMPTY;
+        }
+        int size = rows.size();
+        long[] ids = new long[size];
+        long[] bookerIds = new long[size];
+        LocalDateTime[] starts = new LocalDateTime[size];
+        LocalDateTime[] ends = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            BookingTimelineRow row = rows.get(i);
+            ids[i] = row.id();
+            bookerIds[i] = row.bookerId();
+            starts[i] = row.start();
+            ends[i] = row.end();
+        }
+        return new BookingTimeline(ids, bookerIds, starts, ends);
+    }
+
+    /**
+     * Бронь с наибольшим концом раньше {@code now}.
+     */
+    BookingShortDto last(LocalDateTime now) {
+        return at(countBefore(ends, now, false) - 1);
+    }
+
+    /**
+     * Бронь с наименьшим началом позже {@code now}.
+     */
+    BookingShortDto next(LocalDateTime now) {
+        return at(countBefore(starts, now, true));
+    }
+
+    BookingShortDto current(LocalDateTime now) {
+        int index = countBefore(starts, now, false) - 1;
+        return index >= 0 && ends[index].isAfter(now) ? at(index) : null;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    BookingTimeline with(long id, long bookerId, LocalDateTime start, LocalDateTime end) {
+        BookingTimeline base = without(id);
+        int index = countBefore(base.starts, start, false);
+        return new BookingTimeline(
+                insert(base.ids, index, id),
+                insert(base.bookerIds, index, bookerId),
+                insert(base.starts, index, start),
+                insert(base.ends, index, end));
+    }
+
+    BookingTimeline without(long id) {
+        for (int index = 0; index < ids.length; index++) {
+            if (ids[index] == id) {
+                return new BookingTimeline(remove(ids, index), remove(bookerIds, index),
+                        remove(starts, index), remove(ends, index));
+            }
+        }
+        return this;
+    }
+
+    private BookingShortDto at(int index) {
+        return index >= 0 && index < ids.length ? new BookingShortDto(ids[index], bookerIds[index]) : null;
+    }
+
+    /**
+     * Число элементов строго меньше {@code value}, а при {@code inclusive} — меньше либо равных.
+     */
+    private static int countBefore(LocalDateTime[] sorted, LocalDateTime value, boolean inclusive) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = sorted[middle].compareTo(value);
+            if (comparison < 0 || inclusive && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] array, int index, long value) {
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static LocalDateTime[] insert(LocalDateTime[] array, int index, LocalDateTime value) {
+        LocalDateTime[] result = new LocalDateTime[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static long[] remove(long[] array, int index) {
+        long[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    private static LocalDateTime[] remove(LocalDateTime[] array, int index) {
+        LocalDateTime[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Ленивый кэш {@link BookingTimeline} по вещам. Промах по нескольким вещам загружается из базы одним запросом,
+ * дальше хронология поддерживается событиями {@link BookingSavedEvent} этого экземпляра.
+ * Изменения, сделанные другими экземплярами приложения, видны не позже чем через {@code ttl}.
+ * Загрузка идёт в read-only транзакции, а если вызывающий уже в транзакции — в его.
+ * <p>
+ * Пакетная загрузка не держит ключи, и событие, пришедшее во время запроса, не находит записи
+ * и ничего не меняет. Поэтому событие ещё увеличивает поколение полосы вещи, а пакетная загрузка
+ * кладёт хронологию в кэш, только если поколение с начала запроса не изменилось.
+ */
+@Component
+public class BookingTimelineCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, BookingTimeline> timelines;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public BookingTimelineCache(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking.timeline.max-items:10000}") long maxItems,
+                                @Value("${shareit.booking.timeline.ttl:5m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "bookingTimelines");
+    }
+
+    /**
+     * Загрузка одного ключа держит его запись, и событие дожидается её, поэтому поколение здесь не нужно.
+     */
+    public BookingTimeline get(Long itemId) {
+        return timelines.get(itemId, id -> load(Set.of(id)).get(id));
+    }
+
+    public Map<Long, BookingTimeline> getAll(Collection<Long> itemIds) {
+        Map<Long, BookingTimeline> found = new HashMap<>(timelines.getAllPresent(itemIds));
+        Set<Long> missing = itemIds.stream()
+                .filter(itemId -> !found.containsKey(itemId))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<Long, Long> seen = new HashMap<>();
+        missing.forEach(itemId -> seen.put(itemId, generations.get(stripe(itemId))));
+        load(missing).forEach((itemId, loaded) -> {
+            BookingTimeline stored = timelines.asMap().compute(itemId, (key, current) ->
+                    generations.get(stripe(key)) == seen.get(key) ? loaded : current);
+            found.put(itemId, stored != null ? stored : loaded);
+        });
+        return found;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingSaved(BookingSavedEvent event) {
+        generations.incrementAndGet(stripe(event.itemId()));
+        timelines.asMap().computeIfPresent(event.itemId(), (itemId, timeline) ->
+                event.status() == BookingStatus.APPROVED
+                        ? timeline.with(event.bookingId(), event.bookerId(), event.start(), event.end())
+                        : timeline.without(event.bookingId()));
+    }
+
+    public void invalidateAll() {
+        timelines.invalidateAll();
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private Map<Long, BookingTimeline> load(Set<? extends Long> itemIds) {
+        Map<Long, List<BookingTimelineRow>> rows = readOnlyTransaction.execute(status ->
+                bookingRepository.findApprovedTimelineRows(itemIds)).stream()
+                .collect(Collectors.groupingBy(BookingTimelineRow::itemId));
+        Map<Long, BookingTimeline> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, BookingTimeline.of(rows.getOrDefault(itemId, List.of())));
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public record BookingTimelineRow(Long itemId, Long id, Long bookerId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоская проекция бронирования вместе с вещью и арендатором для читающих запросов.
+ * Собирается выражением конструктора в JPQL: сущности не гидрируются и не проверяются на изменения.
+ */
+public record BookingView(Long id,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          BookingStatus status,
+                          Long bookerId,
+                          String bookerName,
+                          String bookerEmail,
+                          Long itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable,
+                          Long ownerId) {
+}
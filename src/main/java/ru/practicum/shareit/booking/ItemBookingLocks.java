@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по id вещи: бронирования одной вещи создаются по очереди.
+ * Блокировка держится до завершения текущей транзакции, чтобы следующий поток
+ * проверял пересечения уже после фиксации предыдущего бронирования.
+ * Между экземплярами приложения корректность обеспечивает ограничение excl_bookings_item_overlap.
+ */
+@Component
+public class ItemBookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public ItemBookingLocks(@Value("${shareit.booking.lock-stripes:256}") int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilTransactionEnd(Long itemId) {
+        lockUntilTransactionEnd(List.of(itemId));
+    }
+
+    /**
+     * Захватывает полосы всех вещей в порядке возрастания номера полосы, чтобы исключить взаимные блокировки.
+     */
+    public void lockUntilTransactionEnd(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+        int[] stripeIndexes = itemIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripeIndex : stripeIndexes) {
+            stripes[stripeIndex].lock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+                    stripes[stripeIndexes[i]].unlock();
+                }
+            }
+        });
+    }
+
+    private int stripeIndex(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), stripes.length);
+    }
+}
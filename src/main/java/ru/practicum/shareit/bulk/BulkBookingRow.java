@@ -0,0 +1,6 @@
+package ru.practicum.shareit.bulk;
+
+import java.time.LocalDateTime;
+
+public record BulkBookingRow(Long bookerId, Long itemId, LocalDateTime start, LocalDateTime end) {
+}
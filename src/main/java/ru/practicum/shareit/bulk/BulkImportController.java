@@ -0,0 +1,43 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+/**
+ * Массовая загрузка: на входе NDJSON по строке на объект, на выходе NDJSON с результатом по каждой строке.
+ * Вещи и бронирования создаются от имени пользователя из {@code X-Sharer-User-Id}, как и по одной.
+ */
+@RestController
+@RequiredArgsConstructor
+public class BulkImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final BulkImportService bulkImportService;
+
+    @PostMapping(path = "/users/bulk", consumes = NDJSON, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importUsers(InputStream body) {
+        return ResponseEntity.ok(out -> bulkImportService.importUsers(body, out));
+    }
+
+    @PostMapping(path = "/items/bulk", consumes = NDJSON, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importItems(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                             InputStream body) {
+        bulkImportService.checkUserExists(userId);
+        return ResponseEntity.ok(out -> bulkImportService.importItems(userId, body, out));
+    }
+
+    @PostMapping(path = "/bookings/bulk", consumes = NDJSON, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                InputStream body) {
+        bulkImportService.checkUserExists(userId);
+        return ResponseEntity.ok(out -> bulkImportService.importBookings(userId, body, out));
+    }
+}
@@ -0,0 +1,402 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingEntity;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingLocks;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemRequestDto;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.notification.BookingNotificationType;
+import ru.practicum.shareit.notification.BookingOutbox;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.ValidationGroups;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт строк NDJSON порциями: каждая порция проверяется набором запросов на всю порцию,
+ * сохраняется пакетной вставкой в отдельной транзакции, и её результаты сразу пишутся в ответ.
+ * Владелец вещей и арендатор бронирований — пользователь, выполняющий импорт; строка с другим
+ * {@code ownerId} или {@code bookerId} отклоняется.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    private static final byte[] NEW_LINE = {'\n'};
+    private static final String CHUNK_FAILED = "Порция не сохранена, повторите импорт этих строк";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final ItemService itemService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingLocks itemBookingLocks;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingOutbox bookingOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BulkImportService(ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             UserRepository userRepository,
+                             UserMapper userMapper,
+                             ItemRepository itemRepository,
+                             ItemMapper itemMapper,
+                             ItemService itemService,
+                             ItemRequestRepository itemRequestRepository,
+                             BookingRepository bookingRepository,
+                             ItemBookingLocks itemBookingLocks,
+                             BookingIntervalIndex bookingIntervalIndex,
+                             BookingOutbox bookingOutbox,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${shareit.bulk.chunk-size:1000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(BulkRowResult.class);
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+        this.itemService = itemService;
+        this.itemRequestRepository = itemRequestRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemBookingLocks = itemBookingLocks;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingOutbox = bookingOutbox;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importUsers(InputStream in, OutputStream out) {
+        importRows(in, out, UserDto.class, this::importUserChunk);
+    }
+
+    public void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+    }
+
+    public void importItems(Long ownerId, InputStream in, OutputStream out) {
+        importRows(in, out, BulkItemRow.class, rows -> importItemChunk(ownerId, rows));
+    }
+
+    public void importBookings(Long bookerId, InputStream in, OutputStream out) {
+        importRows(in, out, BulkBookingRow.class, rows -> importBookingChunk(bookerId, rows));
+    }
+
+    private List<BulkRowResult> importUserChunk(List<ParsedRow<UserDto>> rows) {
+        Set<String> emails = rows.stream()
+                .map(row -> row.value().getEmail())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(emails));
+
+        RowResults<UserEntity> results = new RowResults<>();
+        for (ParsedRow<UserDto> row : rows) {
+            UserDto dto = row.value();
+            Set<ConstraintViolation<UserDto>> violations = validator.validate(dto, ValidationGroups.OnCreate.class);
+            if (!violations.isEmpty()) {
+                results.fail(row.line(), violations.iterator().next().getMessage());
+            } else if (!takenEmails.add(dto.getEmail())) {
+                results.fail(row.line(), "Email уже используется");
+            } else {
+                results.accept(row.line(), userMapper.toEntity(dto));
+            }
+        }
+        userRepository.saveAll(results.accepted());
+        return results.toResults(UserEntity::getId);
+    }
+
+    private List<BulkRowResult> importItemChunk(Long ownerId, List<ParsedRow<BulkItemRow>> rows) {
+        UserEntity owner = userRepository.getReferenceById(ownerId);
+        Set<Long> requestIds = rows.stream()
+                .map(row -> row.value().requestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(itemRequestRepository.findExistingIds(requestIds));
+
+        RowResults<ItemEntity> results = new RowResults<>();
+        for (ParsedRow<BulkItemRow> row : rows) {
+            ItemRequestDto dto = row.value().toItemRequestDto();
+            try {
+                itemService.validateItemCreation(dto);
+            } catch (ValidationException e) {
+                results.fail(row.line(), e.getMessage());
+                continue;
+            }
+            if (row.value().ownerId() != null && !row.value().ownerId().equals(ownerId)) {
+                results.fail(row.line(), "Импортировать можно только свои вещи");
+                continue;
+            }
+            if (dto.getRequestId() != null && !existingRequestIds.contains(dto.getRequestId())) {
+                results.fail(row.line(), "Запрос не найден");
+                continue;
+            }
+            results.accept(row.line(), itemMapper.toEntity(dto, owner));
+        }
+        itemRepository.saveAll(results.accepted());
+        results.accepted().forEach(item -> eventPublisher.publishEvent(ItemSavedEvent.of(item)));
+        return results.toResults(ItemEntity::getId);
+    }
+
+    private List<BulkRowResult> importBookingChunk(Long bookerId, List<ParsedRow<BulkBookingRow>> rows) {
+        Set<Long> itemIds = new HashSet<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (ParsedRow<BulkBookingRow> row : rows) {
+            BulkBookingRow booking = row.value();
+            if (booking.itemId() != null) {
+                itemIds.add(booking.itemId());
+            }
+            if (booking.start() != null && booking.start().isBefore(from)) {
+                from = booking.start();
+            }
+            if (booking.end() != null && booking.end().isAfter(to)) {
+                to = booking.end();
+            }
+        }
+
+        UserEntity booker = userRepository.getReferenceById(bookerId);
+        itemBookingLocks.lockUntilTransactionEnd(itemIds);
+        Map<Long, ItemEntity> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemEntity::getId, Function.identity()));
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> occupied = new HashMap<>();
+        if (!items.isEmpty() && from.isBefore(to)) {
+            for (BookingEntity existing : bookingRepository.findOverlappingByItemIds(
+                    items.keySet(), from, to, BookingStatus.ACTIVE)) {
+                occupied.computeIfAbsent(existing.getItem().getId(), key -> new TreeMap<>())
+                        .put(existing.getStartDate(), existing.getEndDate());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        RowResults<BookingEntity> results = new RowResults<>();
+        for (ParsedRow<BulkBookingRow> row : rows) {
+            BulkBookingRow booking = row.value();
+            String error = validateBooking(booking, bookerId, now, items, occupied);
+            if (error != null) {
+                results.fail(row.line(), error);
+                continue;
+            }
+            occupied.computeIfAbsent(booking.itemId(), key -> new TreeMap<>()).put(booking.start(), booking.end());
+            results.accept(row.line(), BookingEntity.builder()
+                    .startDate(booking.start())
+                    .endDate(booking.end())
+                    .item(items.get(booking.itemId()))
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        List<BookingEntity> saved = bookingRepository.saveAll(results.accepted());
+        if (!saved.isEmpty()) {
+            bookingOutbox.enqueueAll(BookingNotificationType.CREATED, saved.stream().map(BookingEntity::getId).toList());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                saved.forEach(booking -> bookingIntervalIndex.add(booking.getItem().getId(), booking.getId(),
+                        booking.getStartDate(), booking.getEndDate()));
+            }
+        });
+        return results.toResults(BookingEntity::getId);
+    }
+
+    /**
+     * Начало в прошлом отсекается здесь, по строке: в PostgreSQL такая строка нарушила бы chk_start_not_past
+     * и откатила бы всю порцию.
+     */
+    private String validateBooking(BulkBookingRow booking, Long bookerId, LocalDateTime now,
+                                   Map<Long, ItemEntity> items,
+                                   Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> occupied) {
+        if (booking.bookerId() != null && !booking.bookerId().equals(bookerId)) {
+            return "Импортировать можно только свои бронирования";
+        }
+        if (booking.start() == null || booking.end() == null) {
+            return "Даты начала и окончания должны быть указаны";
+        }
+        if (!booking.end().isAfter(booking.start())) {
+            return "Дата окончания должна быть после даты начала";
+        }
+        if (booking.start().isBefore(now)) {
+            return "Дата начала не может быть в прошлом";
+        }
+        ItemEntity item = items.get(booking.itemId());
+        if (item == null) {
+            return "Вещь не найдена";
+        }
+        if (item.getOwner().getId().equals(bookerId)) {
+            return "Владелец не может бронировать свою вещь";
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return "Вещь недоступна для бронирования";
+        }
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = occupied.get(booking.itemId());
+        if (intervals != null) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = intervals.lowerEntry(booking.end());
+            if (before != null && before.getValue().isAfter(booking.start())) {
+                return "Вещь уже забронирована на эти даты";
+            }
+        }
+        return null;
+    }
+
+    private <T> void importRows(InputStream in, OutputStream out, Class<T> rowType, ChunkImporter<T> importer) {
+        ObjectReader reader = objectMapper.readerFor(rowType);
+        long imported = 0;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<ParsedRow<T>> chunk = new ArrayList<>(chunkSize);
+            List<BulkRowResult> parseFailures = new ArrayList<>();
+            long lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(new ParsedRow<>(lineNumber, reader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    parseFailures.add(BulkRowResult.failed(lineNumber, "Некорректный JSON: " + e.getOriginalMessage()));
+                }
+                if (chunk.size() + parseFailures.size() >= chunkSize) {
+                    imported += flushChunk(chunk, parseFailures, importer, out);
+                }
+            }
+            imported += flushChunk(chunk, parseFailures, importer, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("<<< Массовый импорт {}: создано {}", rowType.getSimpleName(), imported);
+    }
+
+    private <T> long flushChunk(List<ParsedRow<T>> chunk, List<BulkRowResult> parseFailures,
+                                ChunkImporter<T> importer, OutputStream out) throws IOException {
+        List<BulkRowResult> results = new ArrayList<>(parseFailures);
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, importer));
+        }
+        results.sort(Comparator.comparingLong(BulkRowResult::line));
+        for (BulkRowResult result : results) {
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write(NEW_LINE);
+        }
+        out.flush();
+        chunk.clear();
+        parseFailures.clear();
+        return results.stream()
+                .filter(result -> result.status() == BulkRowResult.Status.CREATED)
+                .count();
+    }
+
+    private <T> List<BulkRowResult> importChunk(List<ParsedRow<T>> chunk, ChunkImporter<T> importer) {
+        try {
+            return transactionTemplate.execute(status -> importer.importChunk(chunk));
+        } catch (RuntimeException e) {
+            // Текст исключения с именами ограничений и SQL остаётся в журнале, клиенту уходит общее сообщение
+            log.warn("Порция строк {}-{} не импортирована", chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+            return chunk.stream()
+                    .map(row -> BulkRowResult.failed(row.line(), CHUNK_FAILED))
+                    .toList();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkImporter<T> {
+        List<BulkRowResult> importChunk(List<ParsedRow<T>> rows);
+    }
+
+    private record ParsedRow<T>(long line, T value) {
+    }
+
+    /**
+     * Результаты порции в порядке строк; id принятых строк известны только после сохранения.
+     */
+    private static final class RowResults<E> {
+        private final List<Long> lines = new ArrayList<>();
+        private final List<E> accepted = new ArrayList<>();
+        private final List<Long> acceptedLines = new ArrayList<>();
+        private final Map<Long, String> failures = new HashMap<>();
+
+        private void accept(long line, E entity) {
+            lines.add(line);
+            accepted.add(entity);
+            acceptedLines.add(line);
+        }
+
+        private void fail(long line, String error) {
+            lines.add(line);
+            failures.put(line, error);
+        }
+
+        private List<E> accepted() {
+            return accepted;
+        }
+
+        private List<BulkRowResult> toResults(Function<E, Long> idGetter) {
+            Map<Long, Long> ids = new HashMap<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                ids.put(acceptedLines.get(i), idGetter.apply(accepted.get(i)));
+            }
+            return lines.stream()
+                    .map(line -> failures.containsKey(line)
+                            ? BulkRowResult.failed(line, failures.get(line))
+                            : BulkRowResult.created(line, ids.get(line)))
+                    .toList();
+        }
+    }
+}
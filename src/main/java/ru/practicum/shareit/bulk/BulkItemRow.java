@@ -0,0 +1,15 @@
+package ru.practicum.shareit.bulk;
+
+import ru.practicum.shareit.item.ItemRequestDto;
+
+public record BulkItemRow(Long ownerId, String name, String description, Boolean available, Long requestId) {
+
+    public ItemRequestDto toItemRequestDto() {
+        ItemRequestDto dto = new ItemRequestDto();
+        dto.setName(name);
+        dto.setDescription(description);
+        dto.setAvailable(available);
+        dto.setRequestId(requestId);
+        return dto;
+    }
+}
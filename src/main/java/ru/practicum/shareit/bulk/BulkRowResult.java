@@ -0,0 +1,23 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Результат импорта одной строки NDJSON; {@code line} нумеруется с единицы.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkRowResult(long line, Status status, Long id, String error) {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public static BulkRowResult created(long line, Long id) {
+        return new BulkRowResult(line, Status.CREATED, id, null);
+    }
+
+    public static BulkRowResult failed(long line, String error) {
+        return new BulkRowResult(line, Status.FAILED, null, error);
+    }
+}
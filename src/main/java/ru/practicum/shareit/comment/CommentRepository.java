@@ -1,9 +1,40 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, Long>  {
-    List<CommentEntity> findAllByItemId(Long itemId);
+
+    String RESPONSE = "SELECT new ru.practicum.shareit.comment.CommentResponseDto(" +
+            "c.id, c.text, c.item.id, a.id, a.name, c.created) FROM CommentEntity c JOIN c.author a ";
+
+    /**
+     * Не больше {@code limit} последних комментариев каждой вещи: номер строки внутри вещи
+     * считается оконной функцией, так что объём выборки не зависит от числа комментариев.
+     */
+    @Query(RESPONSE + "WHERE c.id IN (" +
+            "SELECT ranked.id FROM (" +
+            "SELECT c2.id AS id, ROW_NUMBER() OVER (PARTITION BY c2.item.id ORDER BY c2.created DESC, c2.id DESC) AS rn " +
+            "FROM CommentEntity c2 WHERE c2.item.id IN :itemIds) ranked " +
+            "WHERE ranked.rn <= :limit) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentResponseDto> findLatestByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("limit") int limit);
+
+    @Query(RESPONSE + "WHERE c.item.id = :itemId ORDER BY c.created DESC, c.id DESC")
+    List<CommentResponseDto> findFeed(@Param("itemId") Long itemId, Limit limit);
+
+    @Query(RESPONSE + "WHERE c.item.id = :itemId " +
+            "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentResponseDto> findFeedAfter(@Param("itemId") Long itemId,
+                                           @Param("cursorCreated") LocalDateTime cursorCreated,
+                                           @Param("cursorId") Long cursorId,
+                                           Limit limit);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.comment;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Builder
 @Data
+@AllArgsConstructor
 public class CommentResponseDto {
     private Long id;
     private String text;
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.comment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Чтение комментариев: короткое превью последних комментариев для карточек вещей
+ * и постраничная лента комментариев одной вещи.
+ */
+@Service
+public class CommentService {
+
+    private final CommentRepository commentRepository;
+    private final int previewSize;
+
+    public CommentService(CommentRepository commentRepository,
+                          @Value("${shareit.item.comment-preview-size:3}") int previewSize) {
+        this.commentRepository = commentRepository;
+        this.previewSize = previewSize;
+    }
+
+    /**
+     * Последние комментарии по каждой вещи одним запросом, новые первыми.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<CommentResponseDto>> findPreviews(Collection<Long> itemIds) {
+        if (itemIds.isEmpty() || previewSize <= 0) {
+            return Map.of();
+        }
+        return commentRepository.findLatestByItemIdIn(itemIds, previewSize).stream()
+                .collect(Collectors.groupingBy(CommentResponseDto::getItemId));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<CommentResponseDto> getFeed(Long itemId, int size, String cursor) {
+        Limit limit = Limit.of(size + 1);
+        List<CommentResponseDto> comments;
+        if (cursor != null) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            comments = commentRepository.findFeedAfter(itemId, after.timestamp(), after.id(), limit);
+        } else {
+            comments = commentRepository.findFeed(itemId, limit);
+        }
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            CommentResponseDto last = comments.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreated(), last.getId()).encode();
+        }
+        return new KeysetPage<>(comments, nextCursor);
+    }
+}
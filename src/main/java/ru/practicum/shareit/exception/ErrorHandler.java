@@ -1,7 +1,13 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -31,6 +37,16 @@ public class ErrorHandler {
         return new ErrorResponse("Validation Error", errorMessage);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolation(ConstraintViolationException e) {
+        String errorMessage = e.getConstraintViolations().stream()
+                .findFirst()
+                .map(ConstraintViolation::getMessage)
+                .orElse("Validation error");
+        return new ErrorResponse("Validation Error", errorMessage);
+    }
+
     @ExceptionHandler(ValidationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(ValidationException e) {
@@ -62,4 +78,27 @@ public class ErrorHandler {
     public ErrorResponse handleConflict(final ConflictException e) {
         return new ErrorResponse("Конфликт данных", e.getMessage());
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLock(final OptimisticLockingFailureException e) {
+        return new ErrorResponse("Конфликт данных", "Запись изменена параллельным запросом, повторите операцию");
+    }
+
+    /**
+     * Соединение не выдано за {@code spring.datasource.hikari.connection-timeout} или база недоступна.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleDatabaseUnavailable(final RuntimeException e) {
+        log.warn("Нет соединения с базой: {}", e.getMessage());
+        return new ErrorResponse("Сервис перегружен", "Нет свободного соединения с базой, повторите запрос позже");
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleDataIntegrityViolation(final DataIntegrityViolationException e) {
+        log.warn("Нарушено ограничение целостности: {}", e.getMostSpecificCause().getMessage());
+        return new ErrorResponse("Конфликт данных", "Операция нарушает ограничения данных");
+    }
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Поиск по {@link ItemSearchIndex} в памяти процесса, без обращения к базе.
+ * Индекс строится при старте из {@link ItemRepository} и обновляется после фиксации транзакций,
+ * изменивших вещь.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    /**
+     * Сколько кандидатов из индекса проверяется на занятость одним запросом к bookings.
+     */
+    static final int FREE_SEARCH_CHUNK = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<ItemSearchDocument> documents = itemRepository.streamAvailableForSearch()) {
+            index.rebuild(documents::iterator);
+        }
+        ItemSearchIndex.Stats stats = index.stats();
+        log.info("Поисковый индекс вещей построен: {} вещей, {} слов, ~{} байт",
+                stats.items(), stats.terms(), stats.estimatedBytes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        if (event.available()) {
+            index.put(new ItemSearchDocument(event.itemId(), event.name(), event.description()));
+        } else {
+            index.remove(event.itemId());
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return index.search(text, from, size);
+    }
+
+    /**
+     * Кандидаты берутся из индекса порциями в порядке релевантности, а занятые в интервале
+     * отсекаются одним запросом на порцию по индексу бронирований (item_id, start_date, end_date).
+     */
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        int wanted = from + size;
+        List<Long> free = new ArrayList<>(Math.min(wanted, FREE_SEARCH_CHUNK));
+        int scanned = 0;
+        while (free.size() < wanted) {
+            List<Long> candidates = index.search(text, scanned, FREE_SEARCH_CHUNK);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            scanned += candidates.size();
+            Set<Long> booked = new HashSet<>(bookingRepository.findItemIdsBookedBetween(candidates, start, end));
+            for (Long candidate : candidates) {
+                if (!booked.contains(candidate)) {
+                    free.add(candidate);
+                }
+            }
+            if (candidates.size() < FREE_SEARCH_CHUNK) {
+                break;
+            }
+        }
+        return free.subList(Math.min(from, free.size()), Math.min(wanted, free.size()));
+    }
+
+    public ItemSearchIndex.Stats stats() {
+        return index.stats();
+    }
+}
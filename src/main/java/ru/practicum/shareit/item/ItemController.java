@@ -1,56 +1,90 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.comment.CommentRequestDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.pagination.KeysetPage;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 
 @RestController
 @RequestMapping("/items")
-@Slf4j
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final CacheControl ITEM_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final ItemServiceImpl itemServiceImpl;
 
     @GetMapping
     public ResponseEntity<Collection<ItemResponseDto>> getUserItems(
             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info(">>> GET /items | X-Sharer-User-Id: {}", userId);
         Collection<ItemResponseDto> items = itemServiceImpl.getUserItems(userId);
-        log.info("<<< GET /items | Получено {} items для пользователя {}", items.size(), userId);
         return ResponseEntity.ok(items);
     }
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<ItemResponseDto> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long id) {
-        log.info(">>> GET /items/{id} | item с id {}", id);
+    public ResponseEntity<ItemResponseDto> getItemById(@RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long id,
+                                                       WebRequest request) {
+        String etag = itemServiceImpl.getETag(id, userId);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(ITEM_CACHE_CONTROL)
+                    .varyBy(USER_ID_HEADER)
+                    .build();
+        }
         ItemResponseDto requestedItem = itemServiceImpl.getById(id, userId);
-        log.info(">>> GET /items/{id} | отправлено item {}", requestedItem);
-        return ResponseEntity.ok(requestedItem);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(ITEM_CACHE_CONTROL)
+                .varyBy(USER_ID_HEADER)
+                .body(requestedItem);
     }
 
     @PostMapping("/{id}/comment")
     public ResponseEntity<CommentResponseDto> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                             @PathVariable Long id, @RequestBody CommentRequestDto commentRequestDto) {
-        log.info(">>> POST /items/id/comment | X-Sharer-User-Id: {} | Тело запроса: {}", userId, commentRequestDto);
         CommentResponseDto response = itemServiceImpl.createComment(commentRequestDto, userId, id);
-        log.info("<<< POST /items | Создан новый comment: {}", response);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<CommentResponseDto>> getComments(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(required = false) String cursor) {
+        KeysetPage<CommentResponseDto> page = itemServiceImpl.getComments(id, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.content());
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Collection<ItemResponseDto>> searchItems(
-            @RequestParam String text) {
-        log.info(">>> GET /items/search?text={} ", text);
-        Collection<ItemResponseDto> foundItems = itemServiceImpl.getItemsSearch(text);
-        log.info("<<< GET /items/search | Найдено {} items по запросу '{}'", foundItems.size(), text);
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "20") @Positive int size) {
+        Collection<ItemResponseDto> foundItems = itemServiceImpl.getItemsSearch(text, start, end, from, size);
         return ResponseEntity.ok(foundItems);
     }
 
@@ -59,10 +93,7 @@ public class ItemController {
             @PathVariable Long itemId,
             @RequestBody ItemRequestDto itemRequestDto,
             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info(">>> PATCH /items/{itemId} | X-Sharer-User-Id: {} | Тело запроса: {}, ID запроса: {}",
-                userId, itemRequestDto, itemId);
         ItemResponseDto itemUpdated = itemServiceImpl.update(itemId, itemRequestDto, userId);
-        log.info(">>> PATCH /items/{itemId} Обновлен item {} ", itemUpdated);
         return ResponseEntity.ok(itemUpdated);
     }
 
@@ -70,9 +101,7 @@ public class ItemController {
     public ResponseEntity<ItemResponseDto> create(
             @RequestBody ItemRequestDto itemRequestDto,
             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info(">>> POST /items | X-Sharer-User-Id: {} | Тело запроса: {}", userId, itemRequestDto);
         ItemResponseDto createdItem = itemServiceImpl.create(itemRequestDto, userId);
-        log.info("<<< POST /items | Создан новый item: {}", createdItem);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdItem);
     }
 }
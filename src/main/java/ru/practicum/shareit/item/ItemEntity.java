@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import ru.practicum.shareit.booking.BookingEntity;
 import ru.practicum.shareit.comment.CommentEntity;
 import ru.practicum.shareit.user.UserEntity;
@@ -9,6 +12,7 @@ import ru.practicum.shareit.user.UserEntity;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items")
 @Getter
 @Setter
@@ -17,7 +21,8 @@ import java.util.List;
 @AllArgsConstructor
 public class ItemEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,6 +41,22 @@ public class ItemEntity {
     @Column(name = "request_id")
     private Long requestId;
 
+    /**
+     * Число комментариев, поддерживается при создании комментария, чтобы карточке не считать их заново.
+     */
+    @Column(name = "comment_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer commentCount = 0;
+
+    /**
+     * Растёт при каждом изменении строки, в том числе при новом комментарии; из него строится ETag карточки.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @OneToMany(mappedBy = "item")
     private List<BookingEntity> bookings;
 
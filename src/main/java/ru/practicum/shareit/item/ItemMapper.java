@@ -6,6 +6,7 @@ import ru.practicum.shareit.comment.CommentMapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import ru.practicum.shareit.user.UserEntity;
 
 @Mapper(componentModel = "spring",
@@ -18,6 +19,8 @@ public interface ItemMapper {
     @Mapping(target = "available", source = "requestDto.available")
     @Mapping(target = "owner", source = "owner")
     @Mapping(target = "requestId", source = "requestDto.requestId")
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "bookings", ignore = true)
     @Mapping(target = "comments", ignore = true)
     ItemEntity toEntity(ItemRequestDto requestDto, UserEntity owner);
@@ -25,13 +28,26 @@ public interface ItemMapper {
 
     @Mapping(target = "lastBooking", ignore = true)
     @Mapping(target = "nextBooking", ignore = true)
-    @Mapping(target = "comments", source = "comments")
+    @Mapping(target = "comments", ignore = true)
     ItemResponseDto toResponseDto(ItemEntity entity);
 
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    ItemResponseDto toResponseDto(ItemView view);
+
+    @Named("toListingDto")
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    ItemResponseDto toListingDto(ItemEntity entity);
+
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
     @Mapping(target = "requestId", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "bookings", ignore = true)
     @Mapping(target = "comments", ignore = true)
     void updateEntityFromDto(ItemRequestDto requestDto, @MappingTarget ItemEntity entity);
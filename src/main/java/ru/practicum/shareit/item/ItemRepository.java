@@ -1,21 +1,71 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.ItemAnswerDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface ItemRepository extends JpaRepository<ItemEntity, Long> {
 
     List<ItemEntity> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM ItemEntity i " +
-            "WHERE i.available = true " +
-            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<ItemEntity> searchAvailableItems(@Param("text") String text);
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR LOWER(i.name) LIKE '%' || LOWER(:text) || '%' " +
+            "OR LOWER(i.description) LIKE '%' || LOWER(:text) || '%') " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, " +
+            "similarity(LOWER(i.name), LOWER(:text)) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Long> searchAvailableItemIds(@Param("text") String text,
+                                      @Param("from") int from,
+                                      @Param("size") int size);
+
+    /**
+     * Тот же поиск, но без вещей, у которых есть подтверждённое бронирование, пересекающее [start, end).
+     * Антиджойн идёт по частичному индексу idx_bookings_item_approved_range.
+     */
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR LOWER(i.name) LIKE '%' || LOWER(:text) || '%' " +
+            "OR LOWER(i.description) LIKE '%' || LOWER(:text) || '%') " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+            "AND b.start_date < :end AND b.end_date > :start) " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, " +
+            "similarity(LOWER(i.name), LOWER(:text)) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Long> searchFreeItemIds(@Param("text") String text,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end,
+                                 @Param("from") int from,
+                                 @Param("size") int size);
+
+    @Query("SELECT new ru.practicum.shareit.item.ItemSearchDocument(i.id, i.name, i.description) " +
+            "FROM ItemEntity i WHERE i.available = true ORDER BY i.id")
+    Stream<ItemSearchDocument> streamAvailableForSearch();
+
+    @Query("SELECT new ru.practicum.shareit.item.ItemView(" +
+            "i.id, i.name, i.description, i.available, i.owner.id, i.requestId, i.commentCount) " +
+            "FROM ItemEntity i WHERE i.id = :id")
+    Optional<ItemView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new ru.practicum.shareit.request.ItemAnswerDto(i.id, i.name, i.owner.id, i.requestId) " +
+            "FROM ItemEntity i WHERE i.requestId IN :requestIds ORDER BY i.id")
+    List<ItemAnswerDto> findAnswersByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ItemEntity i WHERE i.id = :id")
+    Optional<ItemEntity> findByIdForUpdate(@Param("id") Long id);
 
     @Query("SELECT COUNT(i) > 0 FROM ItemEntity i WHERE i.id = :itemId AND i.owner.id = :ownerId")
     boolean existsByIdAndOwnerId(@Param("itemId") Long itemId,
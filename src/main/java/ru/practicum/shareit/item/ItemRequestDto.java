@@ -8,5 +8,5 @@ public class ItemRequestDto {
     private String name;
     private String description;
     private Boolean available;
-    private Integer requestId;
+    private Long requestId;
 }
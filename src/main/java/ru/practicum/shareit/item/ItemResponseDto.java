@@ -14,6 +14,8 @@ public class ItemResponseDto {
     private String name;
     private String description;
     private Boolean available;
+    private Long requestId;
+    private Integer commentCount;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentResponseDto> comments;
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Публикуется при создании и изменении вещи, обрабатывается после фиксации транзакции.
+ */
+public record ItemSavedEvent(Long itemId, String name, String description, boolean available) {
+
+    public static ItemSavedEvent of(ItemEntity item) {
+        return new ItemSavedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+}
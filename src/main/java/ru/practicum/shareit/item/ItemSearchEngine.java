@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии и описании.
+ * Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Идентификаторы доступных вещей, подходящих под запрос, в порядке убывания релевантности.
+     */
+    List<Long> search(String text, int from, int size);
+
+    /**
+     * То же, но только вещи, свободные в [start, end): без подтверждённых бронирований, пересекающих интервал.
+     */
+    List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+}
@@ -0,0 +1,347 @@
+package ru.practicum.shareit.item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Инвертированный индекс по доступным вещам.
+ * <p>
+ * Для каждого слова хранятся отсортированные массивы id вещей: все вещи со словом и вещи со словом в названии.
+ * Массивы не изменяются после публикации: запись заменяет копией массивы каждого затронутого слова по очереди,
+ * поэтому поиск идёт без блокировок, а записи упорядочиваются одной блокировкой. Цена записи — копия массивов
+ * всех слов вещи, то есть растёт с частотой этих слов; индекс рассчитан на то, что поисков гораздо больше.
+ * <p>
+ * Согласованность слабая: версией целиком публикуется только {@link #rebuild}. Поиск из нескольких слов,
+ * идущий одновременно с {@link #put}, может увидеть часть слов вещи уже новыми, а часть ещё старыми.
+ * Слова, общие для старой и новой версии вещи, при этом не пропадают: новые добавляются раньше,
+ * чем удаляются устаревшие.
+ */
+public class ItemSearchIndex {
+
+    static final int NAME_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final long[] EMPTY = new long[0];
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long OBJECT_HEADER_BYTES = 16;
+    private static final long REFERENCE_BYTES = 4;
+    private static final long MAP_ENTRY_BYTES = 48;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile ConcurrentSkipListMap<String, TermPostings> dictionary = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentHashMap<Long, IndexedItem> items = new ConcurrentHashMap<>();
+
+    /**
+     * Заменяет содержимое индекса документами из {@code documents}.
+     * Пока идёт перестроение, остальные записи ждут, а поиск продолжает работать по старой версии.
+     */
+    public void rebuild(Iterable<ItemSearchDocument> documents) {
+        writeLock.lock();
+        try {
+            Map<String, LongArrayBuilder> all = new HashMap<>();
+            Map<String, LongArrayBuilder> names = new HashMap<>();
+            ConcurrentHashMap<Long, IndexedItem> newItems = new ConcurrentHashMap<>();
+            for (ItemSearchDocument document : documents) {
+                IndexedItem item = IndexedItem.of(document);
+                for (String term : item.terms()) {
+                    all.computeIfAbsent(term, key -> new LongArrayBuilder()).add(document.id());
+                }
+                for (String term : item.nameTerms()) {
+                    names.computeIfAbsent(term, key -> new LongArrayBuilder()).add(document.id());
+                }
+                newItems.put(document.id(), item);
+            }
+
+            ConcurrentSkipListMap<String, TermPostings> newDictionary = new ConcurrentSkipListMap<>();
+            all.forEach((term, ids) -> {
+                LongArrayBuilder nameIds = names.get(term);
+                newDictionary.put(term, new TermPostings(ids.toSortedArray(),
+                        nameIds == null ? EMPTY : nameIds.toSortedArray()));
+            });
+            dictionary = newDictionary;
+            items = newItems;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void put(ItemSearchDocument document) {
+        writeLock.lock();
+        try {
+            IndexedItem item = IndexedItem.of(document);
+            IndexedItem previous = items.put(document.id(), item);
+            Set<String> nameTerms = Set.of(item.nameTerms());
+            for (String term : item.terms()) {
+                TermPostings postings = dictionary.getOrDefault(term, TermPostings.EMPTY_POSTINGS);
+                long[] all = insert(postings.all(), document.id());
+                long[] names = nameTerms.contains(term)
+                        ? insert(postings.names(), document.id())
+                        : delete(postings.names(), document.id());
+                if (all != postings.all() || names != postings.names()) {
+                    dictionary.put(term, new TermPostings(all, names));
+                }
+            }
+            if (previous != null) {
+                removeTerms(document.id(), previous, Set.of(item.terms()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        writeLock.lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Вещи, в которых каждое слово запроса является префиксом какого-либо слова названия или описания.
+     * Сортировка по убыванию веса совпадений, затем по id.
+     */
+    public List<Long> search(String text, int from, int size) {
+        Set<String> queryTerms = tokenize(text);
+        if (queryTerms.isEmpty() || size <= 0) {
+            return List.of();
+        }
+
+        NavigableMap<String, TermPostings> snapshot = dictionary;
+        List<TermPostings> matches = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            TermPostings postings = prefixUnion(snapshot.subMap(queryTerm, true,
+                    queryTerm + Character.MAX_VALUE, false).values());
+            if (postings.all().length == 0) {
+                return List.of();
+            }
+            matches.add(postings);
+        }
+
+        long[] found = matches.get(0).all();
+        for (int i = 1; i < matches.size() && found.length > 0; i++) {
+            found = intersect(found, matches.get(i).all());
+        }
+        return rank(found, matches, from, size);
+    }
+
+    public Stats stats() {
+        NavigableMap<String, TermPostings> snapshot = dictionary;
+        Map<Long, IndexedItem> itemsSnapshot = items;
+        long postings = 0;
+        long bytes = 0;
+        for (Map.Entry<String, TermPostings> entry : snapshot.entrySet()) {
+            long[] all = entry.getValue().all();
+            long[] names = entry.getValue().names();
+            postings += all.length;
+            bytes += MAP_ENTRY_BYTES + stringBytes(entry.getKey())
+                    + OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES
+                    + ARRAY_HEADER_BYTES + Long.BYTES * (long) all.length
+                    + (names == EMPTY ? 0 : ARRAY_HEADER_BYTES + Long.BYTES * (long) names.length);
+        }
+        for (IndexedItem item : itemsSnapshot.values()) {
+            bytes += MAP_ENTRY_BYTES + OBJECT_HEADER_BYTES + Long.BYTES
+                    + OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES
+                    + 2 * ARRAY_HEADER_BYTES + REFERENCE_BYTES * (long) (item.terms().length + item.nameTerms().length);
+        }
+        return new Stats(itemsSnapshot.size(), snapshot.size(), postings, bytes);
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private void removeLocked(Long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item != null) {
+            removeTerms(itemId, item, Set.of());
+        }
+    }
+
+    /**
+     * Убирает вещь из списков её слов, кроме {@code kept}.
+     */
+    private void removeTerms(Long itemId, IndexedItem item, Set<String> kept) {
+        for (String term : item.terms()) {
+            if (kept.contains(term)) {
+                continue;
+            }
+            TermPostings postings = dictionary.get(term);
+            long[] all = delete(postings.all(), itemId);
+            if (all.length == 0) {
+                dictionary.remove(term);
+            } else {
+                dictionary.put(term, new TermPostings(all, delete(postings.names(), itemId)));
+            }
+        }
+    }
+
+    private static TermPostings prefixUnion(Collection<TermPostings> postings) {
+        if (postings.isEmpty()) {
+            return TermPostings.EMPTY_POSTINGS;
+        }
+        if (postings.size() == 1) {
+            return postings.iterator().next();
+        }
+        LongArrayBuilder all = new LongArrayBuilder();
+        LongArrayBuilder names = new LongArrayBuilder();
+        for (TermPostings posting : postings) {
+            all.addAll(posting.all());
+            names.addAll(posting.names());
+        }
+        return new TermPostings(all.toSortedArray(), names.toSortedArray());
+    }
+
+    private static List<Long> rank(long[] found, List<TermPostings> matches, int from, int size) {
+        int minScore = DESCRIPTION_WEIGHT * matches.size();
+        int maxScore = NAME_WEIGHT * matches.size();
+        int[] scores = new int[found.length];
+        for (int i = 0; i < found.length; i++) {
+            int score = 0;
+            for (TermPostings match : matches) {
+                score += Arrays.binarySearch(match.names(), found[i]) >= 0 ? NAME_WEIGHT : DESCRIPTION_WEIGHT;
+            }
+            scores[i] = score - minScore;
+        }
+
+        List<Long> page = new ArrayList<>(Math.min(size, found.length));
+        int skipped = 0;
+        for (int score = maxScore - minScore; score >= 0 && page.size() < size; score--) {
+            for (int i = 0; i < found.length && page.size() < size; i++) {
+                if (scores[i] == score) {
+                    if (skipped < from) {
+                        skipped++;
+                    } else {
+                        page.add(found[i]);
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    static long[] intersect(long[] left, long[] right) {
+        long[] small = left.length <= right.length ? left : right;
+        long[] large = small == left ? right : left;
+        long[] result = new long[small.length];
+        int count = 0;
+        int low = 0;
+        for (long id : small) {
+            int position = Arrays.binarySearch(large, low, large.length, id);
+            if (position >= 0) {
+                result[count++] = id;
+                low = position + 1;
+            } else {
+                low = -position - 1;
+            }
+            if (low >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertAt = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return result;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return EMPTY;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private static long stringBytes(String value) {
+        return OBJECT_HEADER_BYTES + Integer.BYTES + ARRAY_HEADER_BYTES + 2L * value.length();
+    }
+
+    public record Stats(int items, int terms, long postings, long estimatedBytes) {
+    }
+
+    private record TermPostings(long[] all, long[] names) {
+        private static final TermPostings EMPTY_POSTINGS = new TermPostings(EMPTY, EMPTY);
+    }
+
+    private record IndexedItem(String[] terms, String[] nameTerms) {
+
+        private static IndexedItem of(ItemSearchDocument document) {
+            Set<String> nameTerms = tokenize(document.name());
+            Set<String> terms = new LinkedHashSet<>(nameTerms);
+            terms.addAll(tokenize(document.description()));
+            return new IndexedItem(terms.toArray(String[]::new), nameTerms.toArray(String[]::new));
+        }
+    }
+
+    private static final class LongArrayBuilder {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(long[] source) {
+            if (size + source.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + source.length));
+            }
+            System.arraycopy(source, 0, values, size, source.length);
+            size += source.length;
+        }
+
+        private long[] toSortedArray() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            int unique = 1;
+            for (int i = 1; i < result.length; i++) {
+                if (result[i] != result[unique - 1]) {
+                    result[unique++] = result[i];
+                }
+            }
+            return unique == result.length ? result : Arrays.copyOf(result, unique);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/itemsearch}: размер поискового индекса в памяти.
+ */
+@Component
+@Endpoint(id = "itemsearch")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class ItemSearchIndexEndpoint {
+
+    private final InMemoryItemSearchEngine searchEngine;
+
+    @ReadOperation
+    public ItemSearchIndex.Stats stats() {
+        return searchEngine.stats();
+    }
+}
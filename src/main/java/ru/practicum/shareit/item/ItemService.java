@@ -1,5 +1,9 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 public interface ItemService {
@@ -10,12 +14,18 @@ public interface ItemService {
 
     ItemResponseDto getById(Long id, Long userId);
 
+    String getETag(Long id, Long userId);
+
     Collection<ItemResponseDto> getUserItems(Long userId);
 
-    Collection<ItemResponseDto> getItemsSearch(String text);
+    Collection<ItemResponseDto> getItemsSearch(String text, int from, int size);
+
+    Collection<ItemResponseDto> getItemsSearch(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     void validateItemCreation(ItemRequestDto itemRequestDto);
 
     ItemResponseDto getItem(Long itemId);
 
+    KeysetPage<CommentResponseDto> getComments(Long itemId, int size, String cursor);
+
 }
@@ -1,22 +1,31 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.*;
 import ru.practicum.shareit.comment.*;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.*;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
@@ -27,25 +36,35 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentMapper commentMapper;
     private final CommentRepository commentRepository;
+    private final CommentService commentService;
     private final BookingService bookingService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemRequestRepository itemRequestRepository;
 
 
     @Override
+    @Transactional
     public ItemResponseDto create(ItemRequestDto itemRequestDto, Long userId) {
         validateItemCreation(itemRequestDto);
         UserEntity owner = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        if (itemRequestDto.getRequestId() != null && !itemRequestRepository.existsById(itemRequestDto.getRequestId())) {
+            throw new NotFoundException("Запрос с id " + itemRequestDto.getRequestId() + " не найден");
+        }
 
         ItemEntity itemEntity = itemMapper.toEntity(itemRequestDto, owner);
 
         ItemEntity savedEntity = itemRepository.save(itemEntity);
+        eventPublisher.publishEvent(ItemSavedEvent.of(savedEntity));
 
         return itemMapper.toResponseDto(savedEntity);
     }
 
     @Override
+    @Transactional
     public ItemResponseDto update(Long itemId, ItemRequestDto itemRequestDto, Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userService.userExistsById(userId)) {
             throw new NotFoundException("Пользователь с id " + userId + " не найден");
         }
 
@@ -67,45 +86,130 @@ public class ItemServiceImpl implements ItemService {
         }
 
         ItemEntity savedEntity = itemRepository.save(existingEntity);
-        return itemMapper.toResponseDto(savedEntity);
+        eventPublisher.publishEvent(ItemSavedEvent.of(savedEntity));
+        ItemResponseDto dto = itemMapper.toResponseDto(savedEntity);
+        dto.setComments(findCommentsByItemIds(List.of(itemId)).getOrDefault(itemId, Collections.emptyList()));
+        return dto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemResponseDto getById(Long id, Long userId) {
-        ItemEntity existingEntity = itemRepository.findById(id)
+        ItemView item = itemRepository.findViewById(id)
                 .orElseThrow(() -> new NotFoundException("Вещь с id " + id + " не найдена"));
 
-        ItemResponseDto dto = itemMapper.toResponseDto(existingEntity);
-        if (existingEntity.getOwner().getId().equals(userId)) {
-            dto.setLastBooking(bookingService.findLastBooking(id));
-            dto.setNextBooking(bookingService.findNextBooking(id));
+        ItemResponseDto dto = itemMapper.toResponseDto(item);
+        dto.setComments(findCommentsByItemIds(List.of(id)).getOrDefault(id, Collections.emptyList()));
+        if (item.ownerId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            dto.setLastBooking(bookingService.findLastBooking(id, now));
+            dto.setNextBooking(bookingService.findNextBooking(id, now));
         }
 
         return dto;
     }
 
+    /**
+     * Валидатор карточки без её сборки: версия берётся из кэша второго уровня, а для владельца
+     * к ней добавляются id последнего и следующего бронирования из кэша таймлайнов,
+     * потому что они меняются со временем без записи в строку вещи.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getETag(Long id, Long userId) {
+        ItemEntity item = itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + id + " не найдена"));
+        String tag = "i" + id + "-v" + item.getVersion();
+        if (item.getOwner().getId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            tag += "-l" + bookingId(bookingService.findLastBooking(id, now))
+                    + "-n" + bookingId(bookingService.findNextBooking(id, now));
+        }
+        return "\"" + tag + "\"";
+    }
+
+    private static Long bookingId(BookingShortDto booking) {
+        return booking == null ? null : booking.getId();
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemResponseDto> getUserItems(Long userId) {
         if (!userService.userExistsById(userId)) {
             throw new NotFoundException("Пользователь с id " + userId + " не найден");
         }
         List<ItemEntity> foundItems = itemRepository.findByOwnerId(userId);
+        if (foundItems.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> itemIds = foundItems.stream()
+                .map(ItemEntity::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = bookingService.findLastBookings(itemIds, now);
+        Map<Long, BookingShortDto> nextBookings = bookingService.findNextBookings(itemIds, now);
+        Map<Long, List<CommentResponseDto>> comments = findCommentsByItemIds(itemIds);
+
         return foundItems.stream()
-                .map(itemMapper::toResponseDto)
+                .map(item -> {
+                    ItemResponseDto dto = itemMapper.toListingDto(item);
+                    dto.setLastBooking(lastBookings.get(item.getId()));
+                    dto.setNextBooking(nextBookings.get(item.getId()));
+                    dto.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Collection<ItemResponseDto> getItemsSearch(String text) {
+    @Transactional(readOnly = true)
+    public Collection<ItemResponseDto> getItemsSearch(String text, int from, int size) {
+        return getItemsSearch(text, null, null, from, size);
+    }
+
+    /**
+     * Поиск с необязательным интервалом: если он задан, остаются только вещи,
+     * свободные от подтверждённых бронирований на всём интервале.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<ItemResponseDto> getItemsSearch(String text, LocalDateTime start, LocalDateTime end,
+                                                      int from, int size) {
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Для поиска свободных вещей нужны и начало, и конец интервала");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Начало интервала должно быть раньше конца");
+        }
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        List<ItemEntity> foundItems = itemRepository.searchAvailableItems(text);
-        return foundItems.stream()
-                .map(itemMapper::toResponseDto)
+        List<Long> foundIds = start == null
+                ? itemSearchEngine.search(text, from, size)
+                : itemSearchEngine.searchFree(text, start, end, from, size);
+        if (foundIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, ItemEntity> foundItems = itemRepository.findAllById(foundIds).stream()
+                .collect(Collectors.toMap(ItemEntity::getId, Function.identity()));
+        Map<Long, List<CommentResponseDto>> comments = findCommentsByItemIds(foundIds);
+        return foundIds.stream()
+                .map(foundItems::get)
+                .filter(Objects::nonNull)
+                .map(item -> {
+                    ItemResponseDto dto = itemMapper.toListingDto(item);
+                    dto.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
+    private Map<Long, List<CommentResponseDto>> findCommentsByItemIds(Collection<Long> itemIds) {
+        return commentService.findPreviews(itemIds);
+    }
+
     @Override
     public void validateItemCreation(ItemRequestDto itemRequestDto) {
         if (itemRequestDto.getName() == null || itemRequestDto.getName().isBlank()) {
@@ -119,6 +223,11 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    /**
+     * Строка вещи блокируется на время транзакции, чтобы параллельные комментарии не теряли приращение счётчика;
+     * счётчик меняется через сущность, поэтому кэш второго уровня обновляется, а не сбрасывается целиком.
+     */
+    @Transactional
     public CommentResponseDto createComment(CommentRequestDto commentRequestDto, Long userId, Long itemId) {
         BookingEntity booking = bookingRepository.findByItem_IdAndBooker_IdAndStatus(
                         itemId, userId, BookingStatus.APPROVED)
@@ -128,7 +237,7 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Нельзя оставить комментарий к активному бронированию");
         }
 
-        ItemEntity itemEntity = itemRepository.findById(itemId)
+        ItemEntity itemEntity = itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         UserEntity authorEntity = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
@@ -136,9 +245,19 @@ public class ItemServiceImpl implements ItemService {
         CommentEntity comment = commentMapper.toEntity(commentRequestDto, itemEntity, authorEntity);
         comment.setCreated(LocalDateTime.now());
         CommentEntity saved = commentRepository.save(comment);
+        itemEntity.setCommentCount(itemEntity.getCommentCount() + 1);
         return commentMapper.toResponseDto(saved);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CommentResponseDto> getComments(Long itemId, int size, String cursor) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id " + itemId + " не найдена");
+        }
+        return commentService.getFeed(itemId, size, cursor);
+    }
+
     @Override
     public ItemResponseDto getItem(Long itemId) {
         ItemEntity existingEntity = itemRepository.findById(itemId)
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Проекция вещи для чтения карточки: только колонки таблицы items, без коллекций и прокси владельца.
+ */
+public record ItemView(Long id,
+                       String name,
+                       String description,
+                       Boolean available,
+                       Long ownerId,
+                       Long requestId,
+                       Integer commentCount) {
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск средствами PostgreSQL: полнотекстовый индекс по {@code items.search_vector}
+ * и триграммные индексы для совпадений по части слова (см. db/migration/postgresql).
+ * Вектор поддерживает сама база как генерируемый столбец.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.searchAvailableItemIds(text, from, size);
+    }
+
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchFreeItemIds(text, start, end, from, size);
+    }
+}
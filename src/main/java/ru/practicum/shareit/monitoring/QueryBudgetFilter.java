@@ -0,0 +1,69 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Пишет число SQL-запросов на HTTP-запрос в гистограмму {@value #QUERIES_METRIC} по шаблону пути.
+ * Запрос, превысивший бюджет, считается подозрением на N+1: он попадает в лог и в {@value #EXCEEDED_METRIC}.
+ */
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final String QUERIES_METRIC = "shareit.http.queries";
+    static final String EXCEEDED_METRIC = "shareit.http.query.budget.exceeded";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry, int budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountingStatementInspector.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            record(request, QueryCountingStatementInspector.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, int queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        DistributionSummary.builder(QUERIES_METRIC)
+                .description("SQL-запросов на один HTTP-запрос")
+                .baseUnit("queries")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(queries);
+        if (queries > budget) {
+            Counter.builder(EXCEEDED_METRIC)
+                    .description("HTTP-запросы, превысившие бюджет SQL-запросов")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Запрос {} {} выполнил {} SQL-запросов при бюджете {}: возможна проблема N+1",
+                    request.getMethod(), uri, queries, budget);
+        }
+    }
+}
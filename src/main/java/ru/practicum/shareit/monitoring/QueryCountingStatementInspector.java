@@ -0,0 +1,34 @@
+package ru.practicum.shareit.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate в текущем потоке, пока открыт счёт через {@link #begin()}.
+ * Запросы вне HTTP-запроса (фоновые задачи, выгрузка в асинхронном потоке) не считаются.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+
+    public static void begin() {
+        COUNTER.set(new int[1]);
+    }
+
+    /**
+     * Закрывает счёт текущего потока и возвращает число запросов.
+     */
+    public static int end() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null ? 0 : counter[0];
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Передаёт {@link RequestLoggingFilter} размер ответа, а для доли {@code payload-sample-rate} запросов —
+ * и само тело, если у журнала запросов включён DEBUG.
+ */
+@Slf4j(topic = RequestLoggingFilter.LOGGER_NAME)
+@RestControllerAdvice
+@ConditionalOnProperty(name = "shareit.logging.requests.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLoggingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final double payloadSampleRate;
+
+    public RequestLoggingAdvice(@Value("${shareit.logging.requests.payload-sample-rate:0}") double payloadSampleRate) {
+        this.payloadSampleRate = payloadSampleRate;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return log.isInfoEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(RequestLoggingFilter.RESULT_SIZE_ATTRIBUTE, sizeOf(body));
+            if (sampled()) {
+                servletRequest.getServletRequest().setAttribute(RequestLoggingFilter.PAYLOAD_ATTRIBUTE, body);
+            }
+        }
+        return body;
+    }
+
+    private boolean sampled() {
+        return payloadSampleRate > 0 && log.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < payloadSampleRate;
+    }
+
+    private static int sizeOf(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        if (body instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (body instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одна строка журнала на HTTP-запрос: метод, путь, статус, время, пользователь и размер ответа.
+ * Тело ответа не форматируется, пока {@link RequestLoggingAdvice} не отобрал запрос в выборку;
+ * при выключенном INFO у логгера {@value #LOGGER_NAME} фильтр не делает ничего.
+ */
+@Slf4j(topic = RequestLoggingFilter.LOGGER_NAME)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "shareit.logging.requests.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "ru.practicum.shareit.access";
+    static final String RESULT_SIZE_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".resultSize";
+    static final String PAYLOAD_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".payload";
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String ACTUATOR_PREFIX = "/actuator";
+    private static final String NONE = "-";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !log.isInfoEnabled() || request.getRequestURI().startsWith(ACTUATOR_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String userId = request.getHeader(USER_HEADER);
+            Object size = request.getAttribute(RESULT_SIZE_ATTRIBUTE);
+            log.info("method={} path={} status={} latencyMs={} userId={} size={}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(), latencyMs,
+                    userId != null ? userId : NONE, size != null ? size : NONE);
+            Object payload = request.getAttribute(PAYLOAD_ATTRIBUTE);
+            if (payload != null) {
+                log.debug("method={} path={} payload={}", request.getMethod(), request.getRequestURI(), payload);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Уведомление владельцу и бронирующему. {@code eventId} повторяется при повторной доставке
+ * и служит ключом идемпотентности для получателя.
+ */
+public record BookingNotification(Long eventId, BookingNotificationType type, Long bookingId, Long itemId,
+                                  Long ownerId, Long bookerId, LocalDateTime createdAt) {
+
+    static BookingNotification of(BookingOutboxEntity event) {
+        return new BookingNotification(event.getId(), event.getType(), event.getBookingId(), event.getItemId(),
+                event.getOwnerId(), event.getBookerId(), event.getCreatedAt());
+    }
+}
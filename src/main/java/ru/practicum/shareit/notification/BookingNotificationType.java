@@ -0,0 +1,7 @@
+package ru.practicum.shareit.notification;
+
+public enum BookingNotificationType {
+    CREATED,
+    APPROVED,
+    REJECTED
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Ставит уведомление в очередь в текущей транзакции бронирования: оно фиксируется вместе с бронированием
+ * или откатывается вместе с ним. Сама отправка — в {@link OutboxDispatcher}, вне запроса: после фиксации
+ * он только будится.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+
+    private final BookingOutboxRepository outboxRepository;
+    private final OutboxDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(BookingNotificationType type, Long bookingId, Long itemId, Long ownerId, Long bookerId) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(BookingOutboxEntity.builder()
+                .type(type)
+                .bookingId(bookingId)
+                .itemId(itemId)
+                .ownerId(ownerId)
+                .bookerId(bookerId)
+                .createdAt(now)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .build());
+        wakeDispatcherAfterCommit();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(BookingNotificationType type, Collection<Long> bookingIds) {
+        outboxRepository.enqueueAll(type.name(), bookingIds, LocalDateTime.now());
+        wakeDispatcherAfterCommit();
+    }
+
+    private void wakeDispatcherAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
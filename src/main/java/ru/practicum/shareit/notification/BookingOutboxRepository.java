@@ -0,0 +1,47 @@
+package ru.practicum.shareit.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingOutboxRepository extends JpaRepository<BookingOutboxEntity, Long> {
+
+    /**
+     * Очередь уведомлений по пачке бронирований одним INSERT ... SELECT: владелец берётся из вещи.
+     * Перед вставкой контекст сбрасывается, чтобы запрос видел только что сохранённые бронирования.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO booking_outbox (id, type, booking_id, item_id, owner_id, booker_id, created_at, "
+            + "attempts, next_attempt_at) "
+            + "SELECT nextval('booking_outbox_seq'), :type, b.id, b.item_id, i.owner_id, b.booker_id, :now, 0, :now "
+            + "FROM bookings b JOIN items i ON i.id = b.item_id WHERE b.id IN (:bookingIds)", nativeQuery = true)
+    int enqueueAll(@Param("type") String type, @Param("bookingIds") Collection<Long> bookingIds,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Блокирует до {@code limit} строк, срок отправки которых наступил. Строки, заблокированные
+     * другим диспетчером, пропускаются, а не ожидаются, поэтому экземпляры приложения разбирают очередь параллельно.
+     */
+    @Query(value = "SELECT * FROM booking_outbox WHERE next_attempt_at <= :now ORDER BY id LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<BookingOutboxEntity> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Откладывает захваченные строки на время отправки: если диспетчер упадёт, не удалив их,
+     * они снова станут доступны после {@code leaseUntil}.
+     */
+    @Modifying
+    @Query("UPDATE BookingOutboxEntity e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE BookingOutboxEntity e SET e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, "
+            + "e.lastError = :lastError WHERE e.id = :id")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+}
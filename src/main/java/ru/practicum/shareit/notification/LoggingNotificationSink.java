@@ -0,0 +1,18 @@
+package ru.practicum.shareit.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Локальная заглушка канала: уведомление только пишется в лог.
+ */
+@Slf4j
+@Component
+public class LoggingNotificationSink implements NotificationSink {
+
+    @Override
+    public void send(BookingNotification notification) {
+        log.info("Уведомление {} по бронированию {}: владелец {}, бронирующий {}",
+                notification.type(), notification.bookingId(), notification.ownerId(), notification.bookerId());
+    }
+}
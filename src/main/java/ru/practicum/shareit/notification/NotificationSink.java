@@ -0,0 +1,10 @@
+package ru.practicum.shareit.notification;
+
+/**
+ * Канал доставки уведомлений (почта, webhook). Ошибка доставки — любое исключение:
+ * {@link OutboxDispatcher} повторит отправку позже.
+ */
+public interface NotificationSink {
+
+    void send(BookingNotification notification);
+}
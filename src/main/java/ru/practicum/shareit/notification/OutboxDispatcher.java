@@ -0,0 +1,198 @@
+package ru.practicum.shareit.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Фоновый разбор {@code booking_outbox}. Пачка захватывается короткой транзакцией
+ * ({@code FOR UPDATE SKIP LOCKED} и аренда на {@code lease}), отправляется без транзакции и соединения,
+ * затем доставленные строки удаляются, а недоставленные откладываются с экспоненциальной паузой.
+ * Поток будится сразу после фиксации транзакции с новыми уведомлениями, а {@code pollInterval}
+ * нужен только для повторов и строк, записанных другими экземплярами.
+ * Доставка «хотя бы один раз»: после сбоя между отправкой и удалением уведомление уйдёт повторно
+ * с тем же {@link BookingNotification#eventId()}.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    static final String DELIVERED_METRIC = "shareit.outbox.delivered";
+    static final String RETRIED_METRIC = "shareit.outbox.retried";
+    static final String PARKED_METRIC = "shareit.outbox.parked";
+    static final String LAG_METRIC = "shareit.outbox.lag";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BookingOutboxRepository outboxRepository;
+    private final NotificationSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter parked;
+    private final Timer lag;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public OutboxDispatcher(BookingOutboxRepository outboxRepository, NotificationSink sink,
+                            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                            @Value("${shareit.outbox.dispatcher.enabled:true}") boolean enabled,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.poll-interval:500ms}") Duration pollInterval,
+                            @Value("${shareit.outbox.lease:30s}") Duration lease,
+                            @Value("${shareit.outbox.initial-backoff:1s}") Duration initialBackoff,
+                            @Value("${shareit.outbox.max-backoff:10m}") Duration maxBackoff,
+                            @Value("${shareit.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.delivered = Counter.builder(DELIVERED_METRIC)
+                .description("Доставленные уведомления о бронированиях")
+                .register(meterRegistry);
+        this.retried = Counter.builder(RETRIED_METRIC)
+                .description("Неудачные попытки доставки, отложенные на повтор")
+                .register(meterRegistry);
+        this.parked = Counter.builder(PARKED_METRIC)
+                .description("Уведомления, исчерпавшие попытки доставки")
+                .register(meterRegistry);
+        this.lag = Timer.builder(LAG_METRIC)
+                .description("Время от фиксации бронирования до доставки уведомления")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("outbox-dispatcher").daemon().start(this::run);
+        log.info("Диспетчер уведомлений запущен: пачка {}, опрос раз в {}", batchSize, pollInterval);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(pollInterval.plusSeconds(5).toMillis());
+            worker = null;
+        }
+    }
+
+    public void wakeUp() {
+        Thread current = worker;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * Разбирает одну пачку.
+     *
+     * @return сколько строк было захвачено; меньше {@code batchSize} — очередь на сейчас разобрана
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingOutboxEntity> claimed = transactionTemplate.execute(status -> {
+            List<BookingOutboxEntity> due = outboxRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepository.lease(due.stream().map(BookingOutboxEntity::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sent = new ArrayList<>(claimed.size());
+        List<BookingOutboxEntity> failed = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (BookingOutboxEntity event : claimed) {
+            try {
+                sink.send(BookingNotification.of(event));
+                sent.add(event.getId());
+                lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                failed.add(event);
+                errors.add(String.valueOf(e.getMessage()));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(sent);
+            }
+            for (int i = 0; i < failed.size(); i++) {
+                reschedule(failed.get(i), errors.get(i));
+            }
+        });
+        delivered.increment(sent.size());
+        return claimed.size();
+    }
+
+    private void reschedule(BookingOutboxEntity event, String error) {
+        int attempts = event.getAttempts() + 1;
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (attempts >= maxAttempts) {
+            parked.increment();
+            log.error("Уведомление {} по бронированию {} не доставлено за {} попыток: {}",
+                    event.getType(), event.getBookingId(), attempts, lastError);
+            outboxRepository.reschedule(event.getId(), attempts, null, lastError);
+            return;
+        }
+        retried.increment();
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        log.warn("Уведомление {} по бронированию {} не доставлено (попытка {}), повтор через {}: {}",
+                event.getType(), event.getBookingId(), attempts, backoff, lastError);
+        outboxRepository.reschedule(event.getId(), attempts, LocalDateTime.now().plus(backoff), lastError);
+    }
+
+    private void run() {
+        while (running) {
+            int claimed;
+            try {
+                claimed = dispatchBatch();
+            } catch (RuntimeException e) {
+                log.error("Ошибка разбора очереди уведомлений", e);
+                claimed = 0;
+            }
+            if (claimed < batchSize && running) {
+                LockSupport.parkNanos(this, pollInterval.toNanos());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.pagination;
+
+import java.util.List;
+
+/**
+ * Страница выборки и курсор для запроса следующей страницы ({@code null}, если страница последняя).
+ */
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+}
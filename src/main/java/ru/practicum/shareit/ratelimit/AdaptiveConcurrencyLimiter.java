@@ -0,0 +1,101 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Предел одновременно выполняемых запросов, подстраиваемый по ожиданию соединения из пула.
+ * Раз в {@code sampleInterval} берётся среднее время получения соединения за прошедший интервал
+ * из таймера {@value #POOL_ACQUIRE_METRIC}: выше порога предел умножается на {@value #DECREASE_FACTOR},
+ * иначе растёт на единицу. Запросы сверх предела сбрасываются, не дойдя до пула.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final String POOL_ACQUIRE_METRIC = "hikaricp.connections.acquire";
+
+    private static final double DECREASE_FACTOR = 0.75;
+
+    private final MeterRegistry meterRegistry;
+    private final long waitThresholdNanos;
+    private final long sampleIntervalNanos;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong nextSampleAt;
+    private final AtomicInteger limit;
+    private final AtomicReference<Sample> lastSample = new AtomicReference<>(new Sample(0, 0));
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry, Duration waitThreshold, Duration sampleInterval,
+                                      int minLimit, int maxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.waitThresholdNanos = waitThreshold.toNanos();
+        this.sampleIntervalNanos = sampleInterval.toNanos();
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(maxLimit);
+        this.nextSampleAt = new AtomicLong(System.nanoTime() + sampleIntervalNanos);
+    }
+
+    /**
+     * Занимает место под запрос; после обработки его нужно вернуть через {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        adjust(System.nanoTime());
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust(long now) {
+        long next = nextSampleAt.get();
+        if (now - next < 0 || !nextSampleAt.compareAndSet(next, now + sampleIntervalNanos)) {
+            return;
+        }
+        Timer acquire = meterRegistry.find(POOL_ACQUIRE_METRIC).timer();
+        if (acquire == null) {
+            return;
+        }
+        Sample sample = new Sample(acquire.count(), acquire.totalTime(TimeUnit.NANOSECONDS));
+        Sample previous = lastSample.getAndSet(sample);
+        long acquired = sample.count() - previous.count();
+        double meanWaitNanos = acquired > 0 ? (sample.totalNanos() - previous.totalNanos()) / acquired : 0;
+        int current = limit.get();
+        if (meanWaitNanos > waitThresholdNanos) {
+            limit.set(Math.max(minLimit, (int) (current * DECREASE_FACTOR)));
+        } else if (current < maxLimit) {
+            limit.set(current + 1);
+        }
+    }
+
+    /**
+     * Показания таймера на момент замера; публикуется целиком, чтобы следующий замер,
+     * сделанный другим потоком, видел согласованную пару.
+     */
+    private record Sample(long count, double totalNanos) {
+    }
+}
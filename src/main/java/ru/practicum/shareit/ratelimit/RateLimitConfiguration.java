@@ -0,0 +1,68 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+    @Bean
+    public UserRateLimiter userRateLimiter(MeterRegistry meterRegistry,
+                                           @Value("${shareit.rate-limit.capacity:50}") int capacity,
+                                           @Value("${shareit.rate-limit.refill-per-second:10}") double refillPerSecond,
+                                           @Value("${shareit.rate-limit.max-users:100000}") long maxUsers,
+                                           @Value("${shareit.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        return new UserRateLimiter("rateLimitBuckets", capacity, refillPerSecond, maxUsers, idleExpiry,
+                meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.load-shedding.pool-wait-threshold:50ms}") Duration waitThreshold,
+            @Value("${shareit.load-shedding.sample-interval:100ms}") Duration sampleInterval,
+            @Value("${shareit.load-shedding.min-limit:2}") int minLimit,
+            @Value("${shareit.load-shedding.max-limit:50}") int maxLimit) {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(meterRegistry, waitThreshold, sampleInterval, minLimit, maxLimit);
+        Gauge.builder("shareit.ratelimit.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Текущий предел одновременных запросов на запись")
+                .register(meterRegistry);
+        Gauge.builder("shareit.ratelimit.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Запросы на запись, выполняемые сейчас")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Стоит после журнала запросов и счётчика SQL-запросов, чтобы отказы 429 и 503 попадали в журнал.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            UserRateLimiter userRateLimiter,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.rate-limit.bulk.capacity:5}") int bulkCapacity,
+            @Value("${shareit.rate-limit.bulk.refill-per-second:0.1}") double bulkRefillPerSecond,
+            @Value("${shareit.rate-limit.max-users:100000}") long maxUsers,
+            @Value("${shareit.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        // Отдельный бин не заводится, чтобы UserRateLimiter по-прежнему внедрялся по типу
+        UserRateLimiter bulkRateLimiter = new UserRateLimiter("bulkRateLimitBuckets", bulkCapacity,
+                bulkRefillPerSecond, maxUsers, idleExpiry, meterRegistry);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(
+                userRateLimiter, bulkRateLimiter, concurrencyLimiter, objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Защищает запись в {@code /bookings}, {@code /items} и {@code /users}: сначала ведро токенов пользователя
+ * из заголовка {@value #USER_HEADER} (429 при исчерпании), затем общий адаптивный предел
+ * одновременных запросов (503, пока пул соединений перегружен). Пакетные пути {@code .../bulk} платят
+ * из отдельного ведра: один такой запрос может нести миллионы строк. Потоковый ответ держит место
+ * в пределе до завершения асинхронной обработки, а не до выхода из цепочки фильтров.
+ * Каждое решение считается в {@value #DECISIONS_METRIC} с тегом {@code outcome}.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String DECISIONS_METRIC = "shareit.ratelimit.decisions";
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private static final List<String> PROTECTED_PREFIXES = List.of("/bookings", "/items", "/users");
+    private static final String BULK_SUFFIX = "/bulk";
+    private static final long SHED_RETRY_AFTER_SECONDS = 1;
+
+    private final UserRateLimiter userRateLimiter;
+    private final UserRateLimiter bulkRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter allowed;
+    private final Counter throttled;
+    private final Counter shed;
+
+    public RateLimitFilter(UserRateLimiter userRateLimiter, UserRateLimiter bulkRateLimiter,
+                           AdaptiveConcurrencyLimiter concurrencyLimiter, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.userRateLimiter = userRateLimiter;
+        this.bulkRateLimiter = bulkRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.allowed = decisionCounter(meterRegistry, "allowed");
+        this.throttled = decisionCounter(meterRegistry, "throttled");
+        this.shed = decisionCounter(meterRegistry, "shed");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        if (method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+            return true;
+        }
+        return PROTECTED_PREFIXES.stream().noneMatch(path(request)::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = parseUserId(request.getHeader(USER_HEADER));
+        if (userId != null) {
+            UserRateLimiter limiter = path(request).endsWith(BULK_SUFFIX) ? bulkRateLimiter : userRateLimiter;
+            long waitNanos = limiter.tryAcquire(userId);
+            if (waitNanos > 0) {
+                throttled.increment();
+                long retryAfter = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+                log.warn("Пользователь {} превысил лимит запросов на запись: {} {}",
+                        userId, request.getMethod(), request.getRequestURI());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                        new ErrorResponse("Слишком много запросов",
+                                "Превышен лимит запросов на запись, повторите через " + retryAfter + " с"));
+                return;
+            }
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            log.warn("Запрос {} {} сброшен: пул соединений перегружен, предел {}",
+                    request.getMethod(), request.getRequestURI(), concurrencyLimiter.limit());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, SHED_RETRY_AFTER_SECONDS,
+                    new ErrorResponse("Сервис перегружен", "Слишком много одновременных запросов, повторите позже"));
+            return;
+        }
+        allowed.increment();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnAsyncEnd());
+            } else {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, ErrorResponse body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), body);
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Возвращает место в пределе, когда асинхронный ответ закончился любым из способов.
+     * Ошибка и таймаут приходят перед завершением, поэтому место освобождается ровно один раз.
+     */
+    private final class ReleaseOnAsyncEnd implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // События нового асинхронного цикла приходят только слушателям, добавленным в него заново
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(DECISIONS_METRIC)
+                .description("Решения ограничителя запросов на запись")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
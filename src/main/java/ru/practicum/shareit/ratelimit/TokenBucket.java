@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведро токенов без блокировок. Вместо числа токенов хранится одно число — момент, когда ведро снова
+ * станет полным (алгоритм GCRA): каждый запрос сдвигает его на интервал пополнения, и запрос пропускается,
+ * пока сдвиг не уходит в будущее дальше, чем на ёмкость ведра. Состояние меняется одним CAS.
+ */
+final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, long refillIntervalNanos, long nowNanos) {
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstNanos = refillIntervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Забирает токен.
+     *
+     * @return 0, если токен выдан, иначе сколько наносекунд ждать следующего
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long next = base + refillIntervalNanos;
+            long overflow = next - nowNanos - burstNanos;
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вёдра {@link TokenBucket} по пользователям. Карта ограничена {@code maxUsers} и вытесняет вёдра,
+ * к которым не обращались {@code idleExpiry}: простаивающее ведро всё равно уже полное, и новое
+ * ведёт себя так же.
+ */
+public class UserRateLimiter {
+
+    private final int capacity;
+    private final long refillIntervalNanos;
+    private final Cache<Long, TokenBucket> buckets;
+
+    public UserRateLimiter(String name, int capacity, double refillPerSecond, long maxUsers, Duration idleExpiry,
+                           MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.refillIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, name);
+    }
+
+    /**
+     * @return 0, если запрос пользователя пропущен, иначе сколько наносекунд ему ждать
+     */
+    public long tryAcquire(Long userId) {
+        long now = System.nanoTime();
+        return buckets.get(userId, id -> new TokenBucket(capacity, refillIntervalNanos, now)).tryConsume(now);
+    }
+}
@@ -1,12 +1,51 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Validated
 public class ItemRequestController {
+
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ResponseEntity<ItemRequestResponseDto> create(@RequestBody @Validated ItemRequestCreateDto requestDto,
+                                                         @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(itemRequestService.create(requestDto, userId));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestResponseDto>> getOwn(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(itemRequestService.getOwn(userId));
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestResponseDto>> getOthers(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(required = false) String cursor) {
+        KeysetPage<ItemRequestResponseDto> page = itemRequestService.getOthers(userId, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.content());
+    }
+
+    @GetMapping("/{requestId}")
+    public ResponseEntity<ItemRequestResponseDto> getById(@PathVariable Long requestId,
+                                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(itemRequestService.getById(requestId, userId));
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestCreateDto {
+    @NotBlank(message = "Описание запроса не может быть пустым")
+    @Size(max = 512, message = "Описание запроса не длиннее 512 символов")
+    private String description;
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.user.UserEntity;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "requests")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequestEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requester_id")
+    private UserEntity requester;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+}
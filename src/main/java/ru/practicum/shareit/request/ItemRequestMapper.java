@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ItemRequestMapper {
+
+    @Mapping(target = "items", ignore = true)
+    ItemRequestResponseDto toResponseDto(ItemRequestView view);
+
+    @Mapping(target = "requesterId", source = "requester.id")
+    @Mapping(target = "items", ignore = true)
+    ItemRequestResponseDto toResponseDto(ItemRequestEntity entity);
+}
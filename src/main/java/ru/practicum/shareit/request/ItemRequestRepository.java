@@ -0,0 +1,41 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequestEntity, Long> {
+
+    String VIEW = "SELECT new ru.practicum.shareit.request.ItemRequestView(" +
+            "r.id, r.description, r.requester.id, r.created) FROM ItemRequestEntity r ";
+
+    @Query(VIEW + "WHERE r.id = :id")
+    Optional<ItemRequestView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW + "WHERE r.requester.id = :requesterId ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestView> findViewsByRequesterId(@Param("requesterId") Long requesterId);
+
+    /**
+     * Первая страница ленты чужих запросов; следующие берутся через {@link #findFeedAfter} по индексу
+     * idx_requests_created, без OFFSET.
+     */
+    @Query(VIEW + "WHERE r.requester.id <> :userId ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestView> findFeed(@Param("userId") Long userId, Limit limit);
+
+    @Query(VIEW + "WHERE r.requester.id <> :userId " +
+            "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestView> findFeedAfter(@Param("userId") Long userId,
+                                        @Param("cursorCreated") LocalDateTime cursorCreated,
+                                        @Param("cursorId") Long cursorId,
+                                        Limit limit);
+
+    @Query("SELECT r.id FROM ItemRequestEntity r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ItemRequestResponseDto {
+    private Long id;
+    private String description;
+    private Long requesterId;
+    private LocalDateTime created;
+    private List<ItemAnswerDto> items;
+}
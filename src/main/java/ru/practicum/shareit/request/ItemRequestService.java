@@ -0,0 +1,103 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemRequestService {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMapper itemRequestMapper;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+
+    @Transactional
+    public ItemRequestResponseDto create(ItemRequestCreateDto requestDto, Long userId) {
+        requireUser(userId);
+        ItemRequestEntity saved = itemRequestRepository.save(ItemRequestEntity.builder()
+                .description(requestDto.getDescription())
+                .requester(userRepository.getReferenceById(userId))
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequestResponseDto dto = itemRequestMapper.toResponseDto(saved);
+        dto.setItems(Collections.emptyList());
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemRequestResponseDto> getOwn(Long userId) {
+        requireUser(userId);
+        return withAnswers(itemRequestRepository.findViewsByRequesterId(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<ItemRequestResponseDto> getOthers(Long userId, int size, String cursor) {
+        requireUser(userId);
+        Limit limit = Limit.of(size + 1);
+        List<ItemRequestView> requests;
+        if (cursor != null) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            requests = itemRequestRepository.findFeedAfter(userId, after.timestamp(), after.id(), limit);
+        } else {
+            requests = itemRequestRepository.findFeed(userId, limit);
+        }
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            ItemRequestView last = requests.get(size - 1);
+            nextCursor = new KeysetCursor(last.created(), last.id()).encode();
+        }
+        return new KeysetPage<>(withAnswers(requests), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public ItemRequestResponseDto getById(Long requestId, Long userId) {
+        requireUser(userId);
+        ItemRequestView request = itemRequestRepository.findViewById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id " + requestId + " не найден"));
+        return withAnswers(List.of(request)).get(0);
+    }
+
+    /**
+     * Вещи-ответы подтягиваются одним запросом {@code request_id IN (...)} на всю страницу запросов.
+     */
+    private List<ItemRequestResponseDto> withAnswers(List<ItemRequestView> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequestView::id).toList();
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+        return requests.stream()
+                .map(request -> {
+                    ItemRequestResponseDto dto = itemRequestMapper.toResponseDto(request);
+                    dto.setItems(answers.getOrDefault(request.id(), Collections.emptyList()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void requireUser(Long userId) {
+        if (!userService.userExistsById(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не найден");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.request;
+
+import java.time.LocalDateTime;
+
+public record ItemRequestView(Long id, String description, Long requesterId, LocalDateTime created) {
+}
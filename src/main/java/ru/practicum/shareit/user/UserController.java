@@ -1,17 +1,17 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.validation.ValidationGroups;
 
 @RestController
 @RequestMapping(path = "/users")
-@Slf4j
 @RequiredArgsConstructor
 public class UserController {
 
@@ -19,38 +19,32 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<UserDto> create(@Validated(ValidationGroups.OnCreate.class) @RequestBody UserDto userDto) {
-        log.info(">>> POST /users | Тело запроса: {}", userDto);
         UserDto createdUser = userService.create(userDto);
-        log.info("<<< POST /users | Создан новый пользователь: {}", createdUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
     @PatchMapping("/{id}")
     public ResponseEntity<UserDto> update(@PathVariable Long id, @RequestBody UserDto userDto) {
-        log.info(">>> PATCH /users/{} | Тело запроса: {}", id, userDto);
         UserDto updatedUser = userService.update(userDto, id);
-        log.info("<<< PATCH /users/{} | Пользователь обновлен: {}", id, updatedUser);
         return ResponseEntity.ok(updatedUser);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> get(@PathVariable Long id) {
-        log.info(">>> GET /users/{}", id);
+    public ResponseEntity<UserDto> get(@PathVariable Long id, WebRequest request) {
+        String etag = userService.getETag(id);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
         UserDto user = userService.get(id);
-        log.info("<<< GET /users/{} | Получен пользователь: {}", id, user);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(user);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        log.info(">>> DELETE /users/{}", id);
-
         try {
             userService.delete(id);
-            log.info("<<< DELETE /users/{} | Пользователь удален", id);
             return ResponseEntity.noContent().build(); // 204 No Content
         } catch (NotFoundException e) {
-            log.info("<<< DELETE /users/{} | Пользователь не найден ", id);
             return ResponseEntity.notFound().build(); // 404 Not Found
         }
     }
@@ -10,6 +10,7 @@ public interface UserMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "bookings", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "version", ignore = true)
     UserEntity toEntity(UserDto dto);
 
     UserDto toDto(UserEntity entity);
@@ -17,5 +18,6 @@ public interface UserMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "bookings", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(UserDto dto, @MappingTarget UserEntity entity);
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.exception.ConflictException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
 
 
 @Service
 public class UserService {
+    public static final String USER_EXISTS_CACHE = "userExists";
+
     private final UserMapper userMapper;
     private final UserRepository userRepository;
 
@@ -60,12 +64,27 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * ETag профиля по версии строки; сущность читается из кэша второго уровня.
+     */
+    public String getETag(Long id) {
+        UserEntity entity = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
+        return "\"u" + id + "-v" + entity.getVersion() + "\"";
+    }
+
+    @CacheEvict(cacheNames = USER_EXISTS_CACHE, key = "#id")
     public void delete(Long id) {
         userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
         userRepository.deleteById(id);
     }
 
+    /**
+     * Кэшируется только положительный ответ: новый пользователь сразу виден,
+     * а удаление через {@link #delete(Long)} вычищает запись.
+     */
+    @Cacheable(cacheNames = USER_EXISTS_CACHE, unless = "!#result")
     public boolean userExistsById(Long userId) {
         return userRepository.existsById(userId);
     }
@@ -0,0 +1,80 @@
+-- Схема для H2 (тестовая база и EXPLAIN-проверки планов). Таблицы и B-tree индексы повторяют
+-- db/migration/postgresql; частичных, GiST- и GIN-индексов в H2 нет, поэтому условные индексы здесь полные,
+-- а исключающего ограничения и полнотекстового поиска нет вовсе.
+
+CREATE TABLE IF NOT EXISTS users (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(512) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_user PRIMARY KEY (id),
+  CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  requester_id BIGINT,
+  created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT pk_request PRIMARY KEY (id),
+  CONSTRAINT fk_requester FOREIGN KEY (requester_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS items (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  is_available BOOLEAN,
+  owner_id BIGINT NOT NULL,
+  request_id BIGINT,
+  comment_count INTEGER NOT NULL DEFAULT 0,
+  version BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_item PRIMARY KEY (id),
+  CONSTRAINT fk_user FOREIGN KEY (owner_id) REFERENCES users(id),
+  CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests(id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  start_date TIMESTAMP NOT NULL,
+  end_date TIMESTAMP NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL DEFAULT 'WAITING',
+  CONSTRAINT pk_booking PRIMARY KEY (id),
+  CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id),
+  CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users(id),
+  CONSTRAINT chk_start_before_end CHECK (start_date < end_date)
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  text VARCHAR(512),
+  item_id BIGINT NOT NULL,
+  author_id BIGINT NOT NULL,
+  created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT pk_comment PRIMARY KEY (id),
+  CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id),
+  CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_range ON bookings (item_id, start_date, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
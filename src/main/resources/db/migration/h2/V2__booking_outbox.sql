@@ -0,0 +1,18 @@
+-- Очередь уведомлений о бронированиях, как в db/migration/postgresql/V2 (индекс без условия)
+CREATE TABLE IF NOT EXISTS booking_outbox (
+  id BIGINT NOT NULL,
+  type VARCHAR(20) NOT NULL,
+  booking_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  attempts INTEGER NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP,
+  last_error VARCHAR(1000),
+  CONSTRAINT pk_booking_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_outbox_due ON booking_outbox (next_attempt_at, id);
+
+CREATE SEQUENCE IF NOT EXISTS booking_outbox_seq START WITH 1 INCREMENT BY 50;
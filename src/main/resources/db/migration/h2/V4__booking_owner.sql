@@ -0,0 +1,9 @@
+-- Владелец вещи в самой брони, см. db/migration/postgresql/V4__booking_owner.sql. Индексы создаются
+-- до внешнего ключа, чтобы H2 использовал для него idx_bookings_owner_start, а не заводил свой.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+UPDATE bookings b SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = b.item_id) WHERE b.owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_end ON bookings (owner_id, end_date);
+ALTER TABLE bookings ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users(id);
@@ -0,0 +1,125 @@
+-- Базовая схема. Все операторы идемпотентны: базы, созданные прежним schema.sql, принимаются
+-- с baseline-version=0, и эта миграция доводит их до той же схемы, что и у новой базы.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE IF NOT EXISTS users (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(512) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_user PRIMARY KEY (id),
+  CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  requester_id BIGINT,
+  created TIMESTAMP WITHOUT TIME ZONE DEFAULT now(),
+  CONSTRAINT pk_request PRIMARY KEY (id),
+  CONSTRAINT fk_requester FOREIGN KEY (requester_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS items (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  is_available BOOLEAN,
+  owner_id BIGINT NOT NULL,
+  request_id BIGINT,
+  comment_count INTEGER NOT NULL DEFAULT 0,
+  version BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_item PRIMARY KEY (id),
+  CONSTRAINT fk_user FOREIGN KEY (owner_id) REFERENCES users(id),
+  CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests(id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL DEFAULT 'WAITING',
+  CONSTRAINT pk_booking PRIMARY KEY (id),
+  CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items(id),
+  CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users(id),
+  CONSTRAINT chk_start_before_end CHECK (start_date < end_date),
+  CONSTRAINT chk_start_not_past CHECK (start_date >= CURRENT_TIMESTAMP),
+  CONSTRAINT excl_bookings_item_overlap EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'))
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  text VARCHAR(512),
+  item_id BIGINT NOT NULL,
+  author_id BIGINT NOT NULL,
+  created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT pk_comment PRIMARY KEY (id),
+  CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items(id),
+  CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users(id)
+);
+
+-- Столбцы, которых не было в прежнем schema.sql
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (setweight(to_tsvector('simple', name), 'A') ||
+                       setweight(to_tsvector('simple', description), 'B')) STORED;
+-- Сверка счётчика с comments: на свежей колонке заполняет её, дальше правит только разошедшиеся строки
+UPDATE items SET comment_count = c.cnt
+  FROM (SELECT item_id, COUNT(*) AS cnt FROM comments GROUP BY item_id) c
+  WHERE c.item_id = items.id AND items.comment_count <> c.cnt;
+
+-- ItemRepository: вещи владельца, ответы на запросы, полнотекстовый и триграммный поиск
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id) WHERE request_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING gin (search_vector) WHERE is_available;
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops) WHERE is_available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops)
+  WHERE is_available;
+
+-- ItemRequestRepository: свои запросы и лента чужих, обе по (created, id) по убыванию
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+-- BookingRepository: страницы бронирующего и владельца по состояниям, последняя/следующая бронь вещи,
+-- проверка пересечений (её же обслуживает excl_bookings_item_overlap) и поиск свободных вещей
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_range ON bookings (item_id, start_date, end_date)
+  WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_waiting ON bookings (booker_id, start_date DESC, id DESC)
+  WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_rejected ON bookings (booker_id, start_date DESC, id DESC)
+  WHERE status = 'REJECTED';
+CREATE INDEX IF NOT EXISTS idx_bookings_item_waiting ON bookings (item_id, start_date DESC, id DESC)
+  WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_item_rejected ON bookings (item_id, start_date DESC, id DESC)
+  WHERE status = 'REJECTED';
+
+-- CommentRepository: превью и лента комментариев вещи; по автору — проверка внешнего ключа при удалении пользователя
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT MAX(id) FROM users) + 50)
+  WHERE (SELECT MAX(id) FROM users) + 50 > (SELECT last_value FROM users_seq);
+SELECT setval('items_seq', (SELECT MAX(id) FROM items) + 50)
+  WHERE (SELECT MAX(id) FROM items) + 50 > (SELECT last_value FROM items_seq);
+SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings) + 50)
+  WHERE (SELECT MAX(id) FROM bookings) + 50 > (SELECT last_value FROM bookings_seq);
+SELECT setval('comments_seq', (SELECT MAX(id) FROM comments) + 50)
+  WHERE (SELECT MAX(id) FROM comments) + 50 > (SELECT last_value FROM comments_seq);
+SELECT setval('requests_seq', (SELECT MAX(id) FROM requests) + 50)
+  WHERE (SELECT MAX(id) FROM requests) + 50 > (SELECT last_value FROM requests_seq);
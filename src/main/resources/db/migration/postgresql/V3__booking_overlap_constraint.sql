@@ -0,0 +1,34 @@
+-- excl_bookings_item_overlap из V1 создаётся только вместе с таблицей bookings, поэтому базы, принятые
+-- с baseline-version=0 из прежнего schema.sql, остались без него. Добавляем его там, где его нет.
+-- Если активные брони одной вещи уже пересекаются, миграция падает со списком пар: какую из них
+-- отклонить, решает человек, молча менять статусы бронирований миграция не должна.
+DO $$
+DECLARE
+  conflicts TEXT;
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_constraint
+             WHERE conname = 'excl_bookings_item_overlap' AND conrelid = 'bookings'::regclass) THEN
+    RETURN;
+  END IF;
+
+  -- Между проверкой и созданием ограничения новых броней быть не должно
+  LOCK TABLE bookings IN SHARE MODE;
+
+  SELECT string_agg(pair, ', ') INTO conflicts
+    FROM (SELECT a.item_id || ':' || a.id || '/' || b.id AS pair
+            FROM bookings a
+            JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+                           AND b.start_date < a.end_date AND a.start_date < b.end_date
+           WHERE a.status IN ('WAITING', 'APPROVED') AND b.status IN ('WAITING', 'APPROVED')
+           ORDER BY a.item_id, a.id, b.id
+           LIMIT 20) overlapping;
+
+  IF conflicts IS NOT NULL THEN
+    RAISE EXCEPTION 'Пересекающиеся активные бронирования (вещь:id/id, не больше 20): %', conflicts
+      USING HINT = 'Переведите одну бронь из каждой пары в REJECTED и повторите миграцию';
+  END IF;
+
+  ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+END $$;
@@ -0,0 +1,22 @@
+-- Владелец вещи хранится в самой брони: страница /bookings/owner идёт по (owner_id, start_date DESC, id DESC)
+-- так же, как страница бронирующего, и её цена не зависит от длины истории. Раньше она шла через join с items
+-- и сортировала все брони владельца. Владелец у вещи не меняется, поэтому копия пишется один раз при создании брони.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+-- chk_start_not_past проверяется и при UPDATE, а уже начавшиеся брони ему не соответствуют. На время заполнения
+-- ограничение снимается и возвращается как NOT VALID: старые строки не перепроверяются, новые — как прежде.
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS chk_start_not_past;
+UPDATE bookings b SET owner_id = i.owner_id FROM items i WHERE i.id = b.item_id AND b.owner_id IS NULL;
+ALTER TABLE bookings ADD CONSTRAINT chk_start_not_past CHECK (start_date >= CURRENT_TIMESTAMP) NOT VALID;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_end ON bookings (owner_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_waiting ON bookings (owner_id, start_date DESC, id DESC)
+  WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_rejected ON bookings (owner_id, start_date DESC, id DESC)
+  WHERE status = 'REJECTED';
+ALTER TABLE bookings ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users(id);
+
+-- Эти индексы обслуживали только страницу владельца через join с items
+DROP INDEX IF EXISTS idx_bookings_item_waiting;
+DROP INDEX IF EXISTS idx_bookings_item_rejected;
@@ -1,54 +0,0 @@
-CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-  name VARCHAR(255) NOT NULL,
-  email VARCHAR(512) NOT NULL,
-  CONSTRAINT pk_user PRIMARY KEY (id),
-  CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
-);
-
-CREATE TABLE IF NOT EXISTS requests (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-  description VARCHAR(512) NOT NULL,
-  requester_id BIGINT,
-  created TIMESTAMP WITHOUT TIME ZONE DEFAULT now(),
-  CONSTRAINT pk_request PRIMARY KEY (id),
-  CONSTRAINT fk_requester FOREIGN KEY (requester_id) REFERENCES users(id)
-);
-
-CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-  name VARCHAR(255) NOT NULL,
-  description VARCHAR(512) NOT NULL,
-  is_available BOOLEAN,
-  owner_id BIGINT NOT NULL,
-  request_id BIGINT,
-  CONSTRAINT pk_item PRIMARY KEY (id),
-  CONSTRAINT fk_user FOREIGN KEY (owner_id) REFERENCES users(id),
-  CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests(id)
-);
-
-CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-  item_id BIGINT NOT NULL,
-  booker_id BIGINT NOT NULL,
-  status VARCHAR(50) NOT NULL DEFAULT 'WAITING',
-  CONSTRAINT pk_booking PRIMARY KEY (id),
-  CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items(id),
-  CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users(id),
-  CONSTRAINT chk_start_before_end CHECK (start_date < end_date),
-  CONSTRAINT chk_start_not_past CHECK (start_date >= CURRENT_TIMESTAMP)
-);
-
-CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-  text VARCHAR(512),
-  item_id BIGINT NOT NULL,
-  author_id BIGINT NOT NULL,
-  created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-  CONSTRAINT pk_comment PRIMARY KEY (id),
-  CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items(id),
-  CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users(id)
-);
-
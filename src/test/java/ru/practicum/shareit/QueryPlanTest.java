@@ -0,0 +1,174 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Схема из миграций и планы горячих запросов репозиториев: ни один не должен читать таблицу целиком,
+ * а индекс, рассчитанный на запрос, должен быть объявлен в миграции. H2 сам индексирует внешние ключи
+ * и может выбрать такой индекс, поэтому имя проверяется по схеме, а не по плану: в PostgreSQL
+ * автоматических индексов нет, и запрос опирается только на объявленные.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class QueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int ITEMS = 1000;
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final String OWNER_PAGE = "SELECT b.id FROM bookings b WHERE b.owner_id = 7 "
+            + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("ItemRepository.findByOwnerId",
+                        "SELECT i.id FROM items i WHERE i.owner_id = 7",
+                        "idx_items_owner"),
+                Arguments.of("ItemRepository.findAnswersByRequestIdIn",
+                        "SELECT i.id FROM items i WHERE i.request_id IN (3, 4) ORDER BY i.id",
+                        "idx_items_request"),
+                Arguments.of("BookingRepositoryCustom.findPageByBooker",
+                        "SELECT b.id FROM bookings b WHERE b.booker_id = 7 "
+                                + "ORDER BY b.start_date DESC, b.id DESC LIMIT 20",
+                        "idx_bookings_booker_start"),
+                Arguments.of("BookingRepositoryCustom.findPageByBooker(PAST)",
+                        "SELECT b.id FROM bookings b WHERE b.booker_id = 7 AND b.end_date < TIMESTAMP '2030-01-01 00:00:00'",
+                        "idx_bookings_booker_"),
+                Arguments.of("BookingRepositoryCustom.findPageByOwner",
+                        OWNER_PAGE,
+                        "idx_bookings_owner_start"),
+                Arguments.of("BookingRepositoryCustom.findPageByOwner(CURRENT)",
+                        "SELECT c.id FROM bookings c WHERE c.owner_id = 7 AND c.end_date > TIMESTAMP '2030-01-01 00:00:00'",
+                        "idx_bookings_owner_end"),
+                Arguments.of("BookingRepository.findApprovedTimelineRows",
+                        "SELECT b.item_id, b.id FROM bookings b WHERE b.item_id IN (5, 6, 7) AND b.status = 'APPROVED' "
+                                + "ORDER BY b.item_id, b.start_date",
+                        "idx_bookings_item_"),
+                Arguments.of("BookingRepository.existsOverlapping",
+                        "SELECT b.id FROM bookings b WHERE b.item_id = 7 AND b.status IN ('WAITING', 'APPROVED') "
+                                + "AND b.start_date < TIMESTAMP '2030-01-02 00:00:00' "
+                                + "AND b.end_date > TIMESTAMP '2030-01-01 00:00:00' FETCH FIRST 1 ROWS ONLY",
+                        "idx_bookings_item_"),
+                Arguments.of("BookingRepository.findItemIdsBookedBetween",
+                        "SELECT DISTINCT b.item_id FROM bookings b WHERE b.item_id IN (5, 6, 7) AND b.status = 'APPROVED' "
+                                + "AND b.start_date < TIMESTAMP '2030-01-02 00:00:00' "
+                                + "AND b.end_date > TIMESTAMP '2030-01-01 00:00:00'",
+                        "idx_bookings_item_"),
+                Arguments.of("CommentRepository.findFeed",
+                        "SELECT c.id FROM comments c WHERE c.item_id = 7 ORDER BY c.created DESC, c.id DESC LIMIT 20",
+                        "idx_comments_item_created"),
+                Arguments.of("CommentRepository.findLatestByItemIdIn",
+                        "SELECT c.id FROM comments c WHERE c.item_id IN (5, 6, 7)",
+                        "idx_comments_item_created"),
+                Arguments.of("ItemRequestRepository.findViewsByRequesterId",
+                        "SELECT r.id FROM requests r WHERE r.requester_id = 7 ORDER BY r.created DESC, r.id DESC",
+                        "idx_requests_requester_created"),
+                Arguments.of("BookingOutboxRepository.lockDue",
+                        "SELECT o.id FROM booking_outbox o WHERE o.next_attempt_at <= TIMESTAMP '2029-01-02 00:00:00' "
+                                + "ORDER BY o.id LIMIT 100",
+                        "idx_booking_outbox_due"),
+                Arguments.of("UserRepository.existsByEmail",
+                        "SELECT u.id FROM users u WHERE u.email = 'user7@example.com'",
+                        "uq_user_email")
+        );
+    }
+
+    @BeforeEach
+    void seedOnce() {
+        Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (users != null && users > 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            rows.add(new Object[]{id, "user" + id, "user" + id + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+
+        rows.clear();
+        for (long id = 1; id <= USERS; id++) {
+            rows.add(new Object[]{id, "запрос " + id, id, Timestamp.valueOf(LocalDateTime.now().minusHours(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requester_id, created) VALUES (?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (long id = 1; id <= ITEMS; id++) {
+            Long requestId = id % 10 == 0 ? id / 10 % USERS + 1 : null;
+            rows.add(new Object[]{id, "вещь " + id, "описание " + id, true, id % USERS + 1, requestId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        List<Object[]> comments = new ArrayList<>();
+        List<Object[]> outbox = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2029, 1, 1, 0, 0);
+        long bookingId = 0;
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                bookingId++;
+                LocalDateTime start = base.plusDays(i * 30L);
+                long bookerId = (itemId + i + 1) % USERS + 1;
+                rows.add(new Object[]{bookingId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(3)),
+                        itemId, itemId % USERS + 1, bookerId, i % 2 == 0 ? "APPROVED" : "WAITING"});
+                comments.add(new Object[]{bookingId, "отзыв " + bookingId, itemId, bookerId,
+                        Timestamp.valueOf(start.plusDays(4))});
+                outbox.add(new Object[]{bookingId, bookingId, itemId, itemId % USERS + 1, bookerId,
+                        Timestamp.valueOf(base), Timestamp.valueOf(base.plusDays(bookingId))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, owner_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) "
+                + "VALUES (?, ?, ?, ?, ?)", comments);
+        jdbcTemplate.batchUpdate("INSERT INTO booking_outbox (id, type, booking_id, item_id, owner_id, booker_id, "
+                + "created_at, next_attempt_at) VALUES (?, 'CREATED', ?, ?, ?, ?, ?, ?)", outbox);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryIsServedByIndex(String query, String sql, String expectedIndex) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        String normalized = plan.toLowerCase(Locale.ROOT);
+        assertFalse(normalized.contains("tablescan"), query + " читает таблицу целиком:\n" + plan);
+        Integer declared = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE LOWER(index_name) LIKE ?",
+                Integer.class, expectedIndex + "%");
+        assertTrue(declared != null && declared > 0, query + ": в миграции нет индекса " + expectedIndex);
+    }
+
+    /**
+     * Страница владельца раньше шла через join с items и сортировала всю его историю. Теперь она должна
+     * читать именно (owner_id, start_date DESC, id DESC): тогда порядок даёт индекс, и LIMIT обрывает чтение
+     * на первой странице независимо от длины истории.
+     */
+    @Test
+    void ownerPageReadsOwnerStartIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + OWNER_PAGE, String.class);
+        String normalized = plan.toLowerCase(Locale.ROOT);
+        assertTrue(normalized.contains("idx_bookings_owner_start"), plan);
+        assertFalse(normalized.contains("join"), plan);
+    }
+}
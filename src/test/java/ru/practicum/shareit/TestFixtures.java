@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.booking.BookingEntity;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserEntity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Несохранённые сущности для тестов. Тестовые контексты с одинаковыми настройками делят одну базу,
+ * поэтому имя и почта пользователя каждый раз уникальны.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static UserEntity newUser() {
+        String name = UUID.randomUUID().toString();
+        return UserEntity.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .build();
+    }
+
+    public static UserDto newUserDto() {
+        String name = UUID.randomUUID().toString();
+        return UserDto.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .build();
+    }
+
+    public static ItemEntity newItem(UserEntity owner) {
+        return ItemEntity.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    public static BookingEntity newBooking(ItemEntity item, UserEntity booker, LocalDateTime start,
+                                           LocalDateTime end, BookingStatus status) {
+        return BookingEntity.builder()
+                .item(item)
+                .booker(booker)
+                .startDate(start)
+                .endDate(end)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.TestFixtures.newBooking;
+import static ru.practicum.shareit.TestFixtures.newItem;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class BookingDecisionTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void approvesOwnedWaitingBookingsAndReportsEachFailure() {
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity otherOwner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        ItemEntity item = itemRepository.save(newItem(owner));
+        ItemEntity foreignItem = itemRepository.save(newItem(otherOwner));
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+
+        Long free = save(item, booker, base, base.plusHours(2), BookingStatus.WAITING);
+        Long first = save(item, booker, base.plusHours(10), base.plusHours(14), BookingStatus.WAITING);
+        Long overlapping = save(item, booker, base.plusHours(12), base.plusHours(16), BookingStatus.WAITING);
+        Long clashesWithApproved = save(item, booker, base.plusHours(20), base.plusHours(22), BookingStatus.WAITING);
+        save(item, booker, base.plusHours(21), base.plusHours(23), BookingStatus.APPROVED);
+        Long alreadyDecided = save(item, booker, base.plusDays(5), base.plusDays(6), BookingStatus.REJECTED);
+        Long foreign = save(foreignItem, booker, base, base.plusHours(1), BookingStatus.WAITING);
+        Long missing = Long.MAX_VALUE;
+
+        List<BookingDecisionResult> results = bookingService.decide(owner.getId(), new BookingDecisionRequestDto(
+                List.of(overlapping, free, first, clashesWithApproved, alreadyDecided, foreign, missing, free), true));
+
+        assertEquals(List.of(
+                BookingDecisionResult.failed(overlapping, "Вещь уже забронирована на эти даты"),
+                BookingDecisionResult.applied(free, BookingStatus.APPROVED),
+                BookingDecisionResult.applied(first, BookingStatus.APPROVED),
+                BookingDecisionResult.failed(clashesWithApproved, "Вещь уже забронирована на эти даты"),
+                BookingDecisionResult.failed(alreadyDecided, "Решение по бронированию уже принято"),
+                BookingDecisionResult.failed(foreign, "Подтверждать бронирование может только владелец вещи"),
+                BookingDecisionResult.failed(missing, "Бронирование не найдено")), results);
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(free).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(overlapping).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(foreign).orElseThrow().getStatus());
+    }
+
+    @Test
+    void singleApproveAcceptsOnlyWaitingBookingsThatDoNotOverlap() {
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        ItemEntity item = itemRepository.save(newItem(owner));
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        Long rejected = save(item, booker, base, base.plusHours(2), BookingStatus.REJECTED);
+        Long rebooked = save(item, booker, base, base.plusHours(2), BookingStatus.WAITING);
+        Long clashing = save(item, booker, base.plusHours(1), base.plusHours(3), BookingStatus.WAITING);
+
+        assertEquals(BookingStatus.APPROVED, bookingService.approve(owner.getId(), rebooked).getStatus());
+        ValidationException decided = assertThrows(ValidationException.class,
+                () -> bookingService.approve(owner.getId(), rejected));
+        assertEquals("Решение по бронированию уже принято", decided.getMessage());
+        assertThrows(ConflictException.class, () -> bookingService.approve(owner.getId(), clashing));
+
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(rejected).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(clashing).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectsHundredsOfBookingsInConstantNumberOfStatements() {
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        ItemEntity item = itemRepository.save(newItem(owner));
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(save(item, booker, base.plusHours(i), base.plusHours(i + 1), BookingStatus.WAITING));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingDecisionResult> results = bookingService.decide(owner.getId(),
+                new BookingDecisionRequestDto(ids, false));
+
+        assertTrue(results.stream().allMatch(result -> result.status() == BookingStatus.REJECTED));
+        // проверка прав, UPDATE статусов и уведомления в booking_outbox одним INSERT ... SELECT
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(ids.get(299)).orElseThrow().getStatus());
+    }
+
+    private Long save(ItemEntity item, UserEntity booker, LocalDateTime start, LocalDateTime end,
+                      BookingStatus status) {
+        return bookingRepository.save(newBooking(item, booker, start, end, status)).getId();
+    }
+}
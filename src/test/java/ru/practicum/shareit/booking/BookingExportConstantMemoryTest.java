@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Запускается отдельным прогоном surefire с -Xmx64m: миллион строк не поместится в такую кучу,
+ * если выгрузка где-то накапливает данные.
+ */
+class BookingExportConstantMemoryTest {
+
+    private static final int ROWS = 1_000_000;
+
+    private final BookingExportWriter writer = new BookingExportWriter(new JsonFactory());
+
+    @Test
+    void ndjsonExportOfMillionRowsStreams() throws IOException {
+        LineCountingStream out = new LineCountingStream();
+
+        long written = writer.write(syntheticRows(), BookingExportFormat.NDJSON, out);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, out.lines);
+    }
+
+    @Test
+    void csvExportOfMillionRowsStreams() throws IOException {
+        LineCountingStream out = new LineCountingStream();
+
+        long written = writer.write(syntheticRows(), BookingExportFormat.CSV, out);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS + 1, out.lines);
+    }
+
+    private static Iterator<BookingExportRow> syntheticRows() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return LongStream.range(0, ROWS)
+                .mapToObj(i -> new BookingExportRow(i, base.plusHours(i), base.plusHours(i + 1),
+                        BookingStatus.APPROVED, i % 1000, "Дрель, \"ударная\" " + i, i % 500))
+                .iterator();
+    }
+
+    private static final class LineCountingStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выгрузка через сервис: запрос курсором в read-only транзакции, подсказки репозитория и запись в поток.
+ * Идёт в том же прогоне с маленькой кучей, что и {@link BookingExportConstantMemoryTest}. База файловая
+ * с небольшим кэшем страниц, чтобы в куче не лежала она сама: полмиллиона строк выгрузки туда не поместятся,
+ * если их где-то накопить.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/h2/export-${random.uuid};"
+        + "MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=4096;MAX_MEMORY_ROWS=10000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingExportServiceConstantMemoryTest {
+
+    private static final int ROWS = 500_000;
+    private static final int ITEMS = 100;
+    private static final int BATCH = 10_000;
+    private static final long OWNER_ID = 1;
+    private static final long BOOKER_ID = 2;
+
+    @Autowired
+    private BookingExportService exportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", List.of(
+                new Object[]{OWNER_ID, "owner", "owner@example.com"},
+                new Object[]{BOOKER_ID, "booker", "booker@example.com"}));
+        List<Object[]> items = new ArrayList<>(ITEMS);
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "Дрель " + id, "Ударная", true, OWNER_ID});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id) "
+                + "VALUES (?, ?, ?, ?, ?)", items);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int from = 1; from <= ROWS; from += BATCH) {
+            List<Object[]> bookings = new ArrayList<>(BATCH);
+            for (long id = from; id < from + BATCH && id <= ROWS; id++) {
+                LocalDateTime start = base.plusMinutes(id);
+                bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                        (id - 1) % ITEMS + 1, OWNER_ID, BOOKER_ID, BookingStatus.APPROVED.name()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, owner_id, booker_id, "
+                    + "status) VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+        }
+    }
+
+    @Test
+    void ndjsonExportStreamsFromDatabaseCursor() throws IOException {
+        LineCheckingStream out = new LineCheckingStream('{');
+
+        exportService.exportOwnerBookings(OWNER_ID, BookingExportFormat.NDJSON).writeTo(out);
+
+        assertEquals(ROWS, out.lines);
+        assertEquals(0, out.misplaced);
+    }
+
+    @Test
+    void csvExportStreamsFromDatabaseCursor() throws IOException {
+        LineCheckingStream out = new LineCheckingStream(-1);
+
+        exportService.exportOwnerBookings(OWNER_ID, BookingExportFormat.CSV).writeTo(out);
+
+        assertEquals(ROWS + 1, out.lines);
+    }
+
+    /**
+     * В H2 размер выборки за раз не влияет на память, а в PostgreSQL без него драйвер читает весь результат сразу.
+     */
+    @Test
+    void exportQueryKeepsFetchSizeAndReadOnlyHints() throws NoSuchMethodException {
+        QueryHints hints = BookingRepository.class.getMethod("streamExportRowsByOwnerId", Long.class)
+                .getAnnotation(QueryHints.class);
+        Map<String, String> values = Arrays.stream(hints.value())
+                .collect(Collectors.toMap(QueryHint::name, QueryHint::value));
+
+        assertTrue(Integer.parseInt(values.get(HibernateHints.HINT_FETCH_SIZE)) > 0);
+        assertEquals("true", values.get(HibernateHints.HINT_READ_ONLY));
+    }
+
+    /**
+     * Считает строки и те из них, что начинаются не с {@code firstByte}; строки не сохраняет.
+     */
+    private static final class LineCheckingStream extends OutputStream {
+        private final int firstByte;
+        private long lines;
+        private long misplaced;
+        private boolean lineStart = true;
+
+        private LineCheckingStream(int firstByte) {
+            this.firstByte = firstByte;
+        }
+
+        @Override
+        public void write(int b) {
+            if (lineStart && firstByte >= 0 && b != firstByte) {
+                misplaced++;
+            }
+            lineStart = b == '\n';
+            if (lineStart) {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
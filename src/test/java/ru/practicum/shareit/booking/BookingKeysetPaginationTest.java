@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.newBooking;
+import static ru.practicum.shareit.TestFixtures.newItem;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureMockMvc
+class BookingKeysetPaginationTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private UserEntity owner;
+    private UserEntity booker;
+    private List<BookingEntity> expectedOrder;
+
+    /**
+     * Семь бронирований: четыре с разным началом и три с одинаковым (на разные вещи),
+     * чтобы граница страницы приходилась внутрь группы с равным {@code startDate}.
+     */
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser());
+        booker = userRepository.save(newUser());
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(10);
+        List<BookingEntity> bookings = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bookings.add(bookingRepository.save(booking(base.plusDays(i * 2L))));
+        }
+        for (int i = 0; i < 3; i++) {
+            bookings.add(bookingRepository.save(booking(base.plusDays(3))));
+        }
+        expectedOrder = bookings.stream()
+                .sorted(Comparator.comparing(BookingEntity::getStartDate)
+                        .thenComparing(BookingEntity::getId).reversed())
+                .toList();
+    }
+
+    @Test
+    void bookerPagesFollowCursorAcrossStartDateTies() throws Exception {
+        assertEquals(ids(expectedOrder), walk("/bookings", booker.getId(), 2, 4));
+    }
+
+    @Test
+    void ownerPagesFollowCursorAcrossStartDateTies() throws Exception {
+        assertEquals(ids(expectedOrder), walk("/bookings/owner", owner.getId(), 3, 3));
+    }
+
+    @Test
+    void lastFullPageHasNoCursorHeader() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, booker.getId())
+                        .param("size", String.valueOf(expectedOrder.size())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedOrder.size()))
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void pageSizeAboveLimitIsBadRequest() throws Exception {
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            mockMvc.perform(get(path)
+                            .header(USER_ID_HEADER, booker.getId())
+                            .param("size", "101"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void unknownStateIsBadRequest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, booker.getId())
+                        .param("state", "LATER"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Неизвестное состояние: LATER"));
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        String withoutSeparator = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2030-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String badTimestamp = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("вчера|12".getBytes(StandardCharsets.UTF_8));
+        for (String cursor : List.of("!!!", withoutSeparator, badTimestamp)) {
+            mockMvc.perform(get("/bookings")
+                            .header(USER_ID_HEADER, booker.getId())
+                            .param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Некорректный курсор пагинации"));
+        }
+    }
+
+    private List<Long> walk(String path, Long userId, int size, int expectedPages) throws Exception {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get(path)
+                    .header(USER_ID_HEADER, userId)
+                    .param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            BookingResponseDto[] page = objectMapper.readValue(result.getResponse().getContentAsByteArray(),
+                    BookingResponseDto[].class);
+            Arrays.stream(page).forEach(booking -> walked.add(booking.getId()));
+            cursor = result.getResponse().getHeader(KeysetPage.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+        assertEquals(expectedPages, pages);
+        return walked;
+    }
+
+    private static List<Long> ids(List<BookingEntity> bookings) {
+        return bookings.stream().map(BookingEntity::getId).toList();
+    }
+
+    private BookingEntity booking(LocalDateTime start) {
+        ItemEntity item = itemRepository.save(newItem(owner));
+        return newBooking(item, booker, start, start.plusHours(2), BookingStatus.WAITING);
+    }
+}
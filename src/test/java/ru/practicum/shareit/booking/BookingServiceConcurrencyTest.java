@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.TestFixtures.newItem;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Test
+    void concurrentBookingsOfHotItemNeverOverlap() throws Exception {
+        UserEntity owner = userRepository.save(newUser());
+        ItemEntity item = itemRepository.save(ItemEntity.builder()
+                .name("Hot item")
+                .description("Everyone wants it")
+                .available(true)
+                .owner(owner)
+                .build());
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userRepository.save(newUser()).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Long bookerId = bookerIds.get(thread);
+            Random random = new Random(thread);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDateTime start = base.plusHours(random.nextInt(200));
+                    BookingRequestDto request = new BookingRequestDto(item.getId(), start,
+                            start.plusHours(1 + random.nextInt(8)));
+                    try {
+                        bookingService.create(request, bookerId);
+                        created.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<BookingEntity> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .sorted(Comparator.comparing(BookingEntity::getStartDate))
+                .toList();
+        assertEquals(created.get(), bookings.size());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, created.get() + conflicts.get());
+        assertTrue(conflicts.get() > 0);
+        for (int i = 1; i < bookings.size(); i++) {
+            assertFalse(bookings.get(i).getStartDate().isBefore(bookings.get(i - 1).getEndDate()),
+                    "Бронирования " + bookings.get(i - 1).getId() + " и " + bookings.get(i).getId() + " пересекаются");
+        }
+    }
+
+    /**
+     * Отказ на другом экземпляре сюда не доходит, и индекс хранит интервал уже отклонённой брони.
+     * Такой интервал не должен мешать бронированию: решает запрос к базе.
+     */
+    @Test
+    void staleIndexEntryDoesNotRejectBooking() {
+        UserEntity owner = userRepository.save(newUser());
+        ItemEntity item = itemRepository.save(newItem(owner));
+        Long bookerId = userRepository.save(newUser()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingIntervalIndex.add(item.getId(), Long.MAX_VALUE, start, start.plusHours(2));
+
+        BookingResponseDto created = bookingService.create(
+                new BookingRequestDto(item.getId(), start, start.plusHours(2)), bookerId);
+
+        assertEquals(BookingStatus.WAITING, created.getStatus());
+        assertTrue(bookingRepository.findById(created.getId()).isPresent());
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.comment.CommentEntity;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemResponseDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.TestFixtures.newBooking;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingServiceReadTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserEntity owner;
+    private UserEntity booker;
+    private ItemEntity item;
+    private BookingEntity booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(newUser());
+        booker = userRepository.save(newUser());
+        item = itemRepository.save(ItemEntity.builder()
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        booking = bookingRepository.save(approved(now.minusDays(3), now.minusDays(2)));
+        bookingRepository.save(approved(now.plusDays(2), now.plusDays(3)));
+        CommentEntity comment = new CommentEntity();
+        comment.setItem(item);
+        comment.setAuthor(booker);
+        comment.setText("Отличная дрель");
+        comment.setCreated(now);
+        commentRepository.save(comment);
+    }
+
+    @Test
+    void readPathsBuildDtosWithoutLoadingEntities() {
+        statistics.clear();
+
+        BookingResponseDto single = bookingService.get(booking.getId(), owner.getId());
+        KeysetPage<BookingResponseDto> page = bookingService.getAllBookingsByBooker(booker.getId(), BookingState.ALL,
+                0, 10, null);
+        ItemResponseDto itemDto = itemService.getById(item.getId(), owner.getId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+
+        assertEquals(booker.getEmail(), single.getBooker().getEmail());
+        assertEquals("Дрель", single.getItem().getName());
+        assertEquals(1, single.getItem().getComments().size());
+        assertEquals(2, page.content().size());
+        assertEquals(booker.getName(), itemDto.getComments().get(0).getAuthorName());
+        assertEquals(booking.getId(), itemDto.getLastBooking().getId());
+        assertEquals(booker.getId(), itemDto.getNextBooking().getBookerId());
+    }
+
+    @Test
+    void bookingPageIsReadInOneTransaction() {
+        statistics.clear();
+
+        bookingService.getAllBookingsByItOwner(owner.getId(), BookingState.ALL, 0, 10, null);
+
+        assertEquals(1, statistics.getTransactionCount());
+        assertEquals(1, statistics.getSuccessfulTransactionCount());
+    }
+
+    @Test
+    void currentAndPastStatesSplitHistoryForBookerAndOwner() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingEntity current = bookingRepository.save(approved(now.minusHours(1), now.plusHours(1)));
+
+        assertEquals(List.of(current.getId()), bookerPage(BookingState.CURRENT));
+        assertEquals(List.of(current.getId()), ownerPage(BookingState.CURRENT));
+        assertEquals(List.of(booking.getId()), bookerPage(BookingState.PAST));
+        assertEquals(List.of(booking.getId()), ownerPage(BookingState.PAST));
+    }
+
+    private List<Long> bookerPage(BookingState state) {
+        return bookingService.getAllBookingsByBooker(booker.getId(), state, 0, 10, null).content().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+
+    private List<Long> ownerPage(BookingState state) {
+        return bookingService.getAllBookingsByItOwner(owner.getId(), state, 0, 10, null).content().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+
+    private BookingEntity approved(LocalDateTime start, LocalDateTime end) {
+        return newBooking(item, booker, start, end, BookingStatus.APPROVED);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Пакетная загрузка против события, пришедшего во время её запроса. Репозиторий подменён прокси:
+ * он отдаёт заданный снимок и в момент чтения может опубликовать событие.
+ */
+class BookingTimelineCacheTest {
+
+    private static final long ITEM_ID = 7;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final BookingTimelineRow approved =
+            new BookingTimelineRow(ITEM_ID, 1L, 2L, now.plusDays(1), now.plusDays(2));
+
+    private List<BookingTimelineRow> rows = List.of();
+    private Runnable duringLoad = () -> {
+    };
+    private int loads;
+
+    private final BookingTimelineCache cache = new BookingTimelineCache(repository(), new SimpleMeterRegistry(),
+            new NoTransactionManager(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void batchLoadIsCached() {
+        rows = List.of(approved);
+
+        cache.getAll(List.of(ITEM_ID));
+        assertEquals(1L, cache.getAll(List.of(ITEM_ID)).get(ITEM_ID).next(now).getId());
+        assertEquals(1, loads);
+    }
+
+    @Test
+    void eventDuringBatchLoadDoesNotLeaveStaleSnapshot() {
+        duringLoad = () -> cache.onBookingSaved(new BookingSavedEvent(ITEM_ID, approved.id(), approved.bookerId(),
+                approved.start(), approved.end(), BookingStatus.APPROVED));
+
+        assertNull(cache.getAll(List.of(ITEM_ID)).get(ITEM_ID).next(now));
+
+        duringLoad = () -> {
+        };
+        rows = List.of(approved);
+        assertEquals(1L, cache.getAll(List.of(ITEM_ID)).get(ITEM_ID).next(now).getId());
+        assertEquals(2, loads);
+    }
+
+    private BookingRepository repository() {
+        return (BookingRepository) Proxy.newProxyInstance(BookingRepository.class.getClassLoader(),
+                new Class<?>[]{BookingRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findApprovedTimelineRows")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    loads++;
+                    List<BookingTimelineRow> snapshot = rows;
+                    duringLoad.run();
+                    return snapshot;
+                });
+    }
+
+    private static final class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
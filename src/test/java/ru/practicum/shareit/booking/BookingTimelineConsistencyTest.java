@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.TestFixtures.newBooking;
+import static ru.practicum.shareit.TestFixtures.newItem;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class BookingTimelineConsistencyTest {
+
+    private static final int ITEMS = 30;
+    // Эталон: прямые запросы к bookings, без кэша и без BookingTimeline
+    private static final String LAST_BOOKINGS = "SELECT b.item.id, b.id FROM BookingEntity b "
+            + "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED "
+            + "AND b.endDate = (SELECT MAX(b2.endDate) FROM BookingEntity b2 WHERE b2.item.id = b.item.id "
+            + "AND b2.endDate < :now AND b2.status = ru.practicum.shareit.booking.BookingStatus.APPROVED)";
+    private static final String NEXT_BOOKINGS = "SELECT b.item.id, b.id FROM BookingEntity b "
+            + "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED "
+            + "AND b.startDate = (SELECT MIN(b2.startDate) FROM BookingEntity b2 WHERE b2.item.id = b.item.id "
+            + "AND b2.startDate > :now AND b2.status = ru.practicum.shareit.booking.BookingStatus.APPROVED)";
+    private static final String CURRENT_BOOKINGS = "SELECT b.item.id, b.id FROM BookingEntity b "
+            + "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED "
+            + "AND b.startDate < :now AND b.endDate > :now";
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingTimelineCache bookingTimelineCache;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void timelineMatchesDatabaseQueries() {
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(30);
+        List<Long> itemIds = seed(base, new Random(42));
+
+        for (int hour = 0; hour < 60 * 24; hour += 7) {
+            LocalDateTime now = base.plusHours(hour).plusMinutes(30);
+            bookingTimelineCache.invalidateAll();
+            assertEquals(byItem(LAST_BOOKINGS, itemIds, now),
+                    ids(bookingService.findLastBookings(itemIds, now)), "last на " + now);
+            assertEquals(byItem(NEXT_BOOKINGS, itemIds, now),
+                    ids(bookingService.findNextBookings(itemIds, now)), "next на " + now);
+            Map<Long, Long> currentBookings = byItem(CURRENT_BOOKINGS, itemIds, now);
+            for (Long itemId : itemIds) {
+                Long expected = currentBookings.get(itemId);
+                BookingShortDto current = bookingService.findCurrentBooking(itemId, now);
+                assertEquals(expected, current != null ? current.getId() : null, "current на " + now);
+            }
+        }
+    }
+
+    @Test
+    void approvalUpdatesWarmTimelineWithoutQueries() {
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        ItemEntity item = itemRepository.save(newItem(owner));
+        LocalDateTime now = LocalDateTime.now();
+        Long later = save(item, booker, now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+        Long sooner = save(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        assertEquals(later, bookingService.findNextBooking(item.getId(), now).getId());
+        bookingService.approve(owner.getId(), sooner);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(sooner, bookingService.findNextBooking(item.getId(), now).getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * По каждой вещи цепочка непересекающихся броней со случайными статусами и промежутками.
+     */
+    private List<Long> seed(LocalDateTime base, Random random) {
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemEntity item = itemRepository.save(newItem(owner));
+            itemIds.add(item.getId());
+            LocalDateTime start = base.plusHours(random.nextInt(48));
+            int bookings = random.nextInt(12);
+            for (int b = 0; b < bookings; b++) {
+                LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+                save(item, booker, start, end, statuses[random.nextInt(statuses.length)]);
+                start = end.plusHours(random.nextInt(48));
+            }
+        }
+        return itemIds;
+    }
+
+    private Map<Long, Long> byItem(String jpql, List<Long> itemIds, LocalDateTime now) {
+        return entityManager.createQuery(jpql, Object[].class)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .getResultList().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
+    private static Map<Long, Long> ids(Map<Long, BookingShortDto> bookings) {
+        return bookings.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getId()));
+    }
+
+    private Long save(ItemEntity item, UserEntity booker, LocalDateTime start, LocalDateTime end,
+                      BookingStatus status) {
+        return bookingRepository.save(newBooking(item, booker, start, end, status)).getId();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.ItemEntity;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.newItem;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureMockMvc
+class BulkImportControllerTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private UserEntity owner;
+    private UserEntity booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser());
+        booker = userRepository.save(newUser());
+    }
+
+    @Test
+    void itemsAreCreatedForHeaderUserAndRowsForAnotherOwnerAreRejected() throws Exception {
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"
+                + "{\"ownerId\":" + booker.getId() + ",\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}\n";
+
+        List<BulkRowResult> results = importRows("/items/bulk", owner.getId(), body);
+
+        assertEquals(BulkRowResult.Status.CREATED, results.get(0).status());
+        assertEquals(owner.getId(), itemRepository.findById(results.get(0).id()).orElseThrow().getOwner().getId());
+        assertEquals(BulkRowResult.Status.FAILED, results.get(1).status());
+        assertTrue(itemRepository.findByOwnerId(booker.getId()).isEmpty());
+    }
+
+    @Test
+    void bookingsAreCreatedForHeaderUserAndRowsForAnotherBookerAreRejected() throws Exception {
+        ItemEntity item = itemRepository.save(newItem(owner));
+        UserEntity stranger = userRepository.save(newUser());
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        String body = bookingRow(null, item.getId(), start)
+                + bookingRow(stranger.getId(), item.getId(), start.plusDays(2));
+
+        List<BulkRowResult> results = importRows("/bookings/bulk", booker.getId(), body);
+
+        assertEquals(BulkRowResult.Status.CREATED, results.get(0).status());
+        assertEquals(booker.getId(),
+                bookingRepository.findById(results.get(0).id()).orElseThrow().getBooker().getId());
+        assertEquals(BulkRowResult.Status.FAILED, results.get(1).status());
+        assertTrue(bookingRepository.findByBooker_Id(stranger.getId()).isEmpty());
+    }
+
+    @Test
+    void bookingStartingInPastFailsOnlyItsOwnRow() throws Exception {
+        ItemEntity item = itemRepository.save(newItem(owner));
+        LocalDateTime future = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        String body = bookingRow(null, item.getId(), future.minusDays(3))
+                + bookingRow(null, item.getId(), future);
+
+        List<BulkRowResult> results = importRows("/bookings/bulk", booker.getId(), body);
+
+        assertEquals(BulkRowResult.Status.FAILED, results.get(0).status());
+        assertEquals("Дата начала не может быть в прошлом", results.get(0).error());
+        assertEquals(BulkRowResult.Status.CREATED, results.get(1).status());
+    }
+
+    @Test
+    void unknownHeaderUserIsNotFound() throws Exception {
+        mockMvc.perform(post("/items/bulk")
+                        .header(USER_ID_HEADER, Long.MAX_VALUE)
+                        .contentType(NDJSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<BulkRowResult> importRows(String path, Long userId, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post(path)
+                        .header(USER_ID_HEADER, userId)
+                        .contentType(NDJSON)
+                        .accept(NDJSON)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        List<BulkRowResult> results = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            results.add(objectMapper.readValue(line, BulkRowResult.class));
+        }
+        return results;
+    }
+
+    private static String bookingRow(Long bookerId, Long itemId, LocalDateTime start) {
+        return "{" + (bookerId != null ? "\"bookerId\":" + bookerId + "," : "")
+                + "\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(2) + "\"}\n";
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingEntity;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ItemAvailabilitySearchTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(10).withNano(0);
+    private static final LocalDateTime END = START.plusDays(3);
+
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void onlyApprovedOverlappingBookingsMakeItemBusy() {
+        String word = uniqueWord();
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        Long approvedInside = newItem(owner, word);
+        Long waitingInside = newItem(owner, word);
+        Long approvedBefore = newItem(owner, word);
+        Long approvedAfter = newItem(owner, word);
+        Long rejectedInside = newItem(owner, word);
+        book(approvedInside, booker, START.plusDays(1), END.plusDays(1), BookingStatus.APPROVED);
+        book(waitingInside, booker, START, END, BookingStatus.WAITING);
+        book(approvedBefore, booker, START.minusDays(2), START, BookingStatus.APPROVED);
+        book(approvedAfter, booker, END, END.plusDays(2), BookingStatus.APPROVED);
+        book(rejectedInside, booker, START, END, BookingStatus.REJECTED);
+
+        assertEquals(List.of(waitingInside, approvedBefore, approvedAfter, rejectedInside),
+                searchFree(word, 0, 10));
+        assertEquals(List.of(approvedBefore, approvedAfter), searchFree(word, 1, 2));
+        assertEquals(5, itemService.getItemsSearch(word, 0, 10).size());
+    }
+
+    @Test
+    void freeItemsAreFoundBehindALongRunOfBookedOnes() {
+        String word = uniqueWord();
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        int booked = InMemoryItemSearchEngine.FREE_SEARCH_CHUNK + 30;
+        List<Long> free = new ArrayList<>();
+        List<BookingEntity> bookings = new ArrayList<>();
+        for (int i = 0; i < booked + 15; i++) {
+            Long itemId = newItem(owner, word);
+            if (i < booked) {
+                bookings.add(booking(itemId, booker, START, END, BookingStatus.APPROVED));
+            } else {
+                free.add(itemId);
+            }
+        }
+        bookingRepository.saveAll(bookings);
+
+        assertEquals(free.subList(0, 10), searchFree(word, 0, 10));
+        assertEquals(free.subList(10, 15), searchFree(word, 10, 10));
+        assertEquals(List.of(), searchFree(word, 15, 10));
+    }
+
+    @Test
+    void intervalMustBeCompleteAndOrdered() {
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemsSearch("дрель", START, null, 0, 10));
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemsSearch("дрель", END, START, 0, 10));
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemsSearch("дрель", START, START, 0, 10));
+    }
+
+    private List<Long> searchFree(String text, int from, int size) {
+        return itemService.getItemsSearch(text, START, END, from, size).stream()
+                .map(ItemResponseDto::getId)
+                .toList();
+    }
+
+    private Long newItem(UserEntity owner, String word) {
+        ItemRequestDto item = new ItemRequestDto();
+        item.setName("Дрель " + word);
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        return itemService.create(item, owner.getId()).getId();
+    }
+
+    private void book(Long itemId, UserEntity booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(booking(itemId, booker, start, end, status));
+    }
+
+    private BookingEntity booking(Long itemId, UserEntity booker, LocalDateTime start, LocalDateTime end,
+                                  BookingStatus status) {
+        return BookingEntity.builder()
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(booker)
+                .startDate(start)
+                .endDate(end)
+                .status(status)
+                .build();
+    }
+
+    private static String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
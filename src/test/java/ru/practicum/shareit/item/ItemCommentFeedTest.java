@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingEntity;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.comment.CommentRequestDto;
+import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.TestFixtures.newItem;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "shareit.item.comment-preview-size=3"
+})
+class ItemCommentFeedTest {
+
+    private static final int COMMENTS = 5;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemController itemController;
+
+    @Test
+    void itemCardShowsLatestCommentsAndMaintainedCount() {
+        UserEntity owner = userRepository.save(newUser());
+        ItemEntity item = seedItem(owner);
+        List<Long> commentIds = seedComments(item, COMMENTS);
+
+        ItemResponseDto card = itemService.getById(item.getId(), owner.getId());
+        assertEquals(COMMENTS, card.getCommentCount());
+        assertEquals(List.of(commentIds.get(4), commentIds.get(3), commentIds.get(2)),
+                card.getComments().stream().map(CommentResponseDto::getId).toList());
+
+        ItemResponseDto listed = itemService.getUserItems(owner.getId()).iterator().next();
+        assertEquals(COMMENTS, listed.getCommentCount());
+        assertEquals(3, listed.getComments().size());
+        assertEquals(COMMENTS, itemRepository.findById(item.getId()).orElseThrow().getCommentCount());
+    }
+
+    @Test
+    void feedWalksAllCommentsNewestFirst() {
+        ItemEntity item = seedItem(userRepository.save(newUser()));
+        List<Long> commentIds = seedComments(item, COMMENTS);
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<CommentResponseDto> page = itemService.getComments(item.getId(), 2, cursor);
+            page.content().forEach(comment -> walked.add(comment.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(commentIds.reversed(), walked);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        ItemEntity item = seedItem(userRepository.save(newUser()));
+        seedComments(item, 2);
+
+        KeysetPage<CommentResponseDto> page = itemService.getComments(item.getId(), 2, null);
+        assertEquals(2, page.content().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void feedPageSizeIsCapped() {
+        ItemEntity item = seedItem(userRepository.save(newUser()));
+
+        assertThrows(ConstraintViolationException.class,
+                () -> itemController.getComments(item.getId(), Integer.MAX_VALUE, null));
+    }
+
+    @Test
+    void feedOfMissingItemIsNotFound() {
+        assertThrows(NotFoundException.class, () -> itemService.getComments(Long.MAX_VALUE, 10, null));
+    }
+
+    private ItemEntity seedItem(UserEntity owner) {
+        return itemRepository.save(newItem(owner));
+    }
+
+    private List<Long> seedComments(ItemEntity item, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UserEntity author = userRepository.save(newUser());
+            bookingRepository.save(BookingEntity.builder()
+                    .item(item)
+                    .booker(author)
+                    .startDate(now.minusDays(3))
+                    .endDate(now.minusDays(2))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            CommentResponseDto comment = itemService.createComment(
+                    new CommentRequestDto("отзыв " + i), author.getId(), item.getId());
+            assertNotNull(comment.getId());
+            ids.add(comment.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingRequestDto;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.newUserDto;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class ItemETagTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedItemIsRevalidatedWithoutQueries() throws Exception {
+        Long ownerId = createUser();
+        Long itemId = newItem(ownerId);
+        String etag = fetchItem(itemId, ownerId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/items/{id}", itemId)
+                        .header(USER_ID_HEADER, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void itemTagChangesOnUpdate() throws Exception {
+        Long ownerId = createUser();
+        Long itemId = newItem(ownerId);
+        String before = fetchItem(itemId, ownerId);
+
+        ItemRequestDto patch = new ItemRequestDto();
+        patch.setDescription("Новое описание");
+        itemService.update(itemId, patch, ownerId);
+
+        String updated = fetchItem(itemId, ownerId, before);
+        assertNotEquals(before, updated);
+    }
+
+    @Test
+    void ownerTagFollowsBookingsWhileOthersDoNot() throws Exception {
+        Long ownerId = createUser();
+        Long bookerId = createUser();
+        Long itemId = newItem(ownerId);
+        String ownerTag = fetchItem(itemId, ownerId);
+        String bookerTag = fetchItem(itemId, bookerId);
+        assertNotEquals(ownerTag, bookerTag);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.create(new BookingRequestDto(itemId, start, start.plusDays(1)), bookerId).getId();
+        bookingService.approve(ownerId, bookingId);
+
+        assertNotEquals(ownerTag, fetchItem(itemId, ownerId, ownerTag));
+        mockMvc.perform(get("/items/{id}", itemId)
+                        .header(USER_ID_HEADER, bookerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, bookerTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void userTagChangesOnUpdate() throws Exception {
+        Long userId = createUser();
+        MvcResult first = mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        userService.update(UserDto.builder().name("Другое имя").build(), userId);
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private String fetchItem(Long itemId, Long userId) throws Exception {
+        return fetchItem(itemId, userId, null);
+    }
+
+    private String fetchItem(Long itemId, Long userId, String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder request = get("/items/{id}", itemId).header(USER_ID_HEADER, userId);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, USER_ID_HEADER))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private Long newItem(Long ownerId) {
+        ItemRequestDto item = new ItemRequestDto();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+
+    private Long createUser() {
+        return userService.create(newUserDto()).getId();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.rebuild(List.of(
+                new ItemSearchDocument(1L, "Дрель", "Простая дрель"),
+                new ItemSearchDocument(2L, "Отвертка", "Аккумуляторная отвертка, не дрель"),
+                new ItemSearchDocument(3L, "Пила", "Ручная пила")));
+    }
+
+    @Test
+    void searchMatchesPrefixesOfAllQueryTermsAndRanksNameMatchesFirst() {
+        assertEquals(List.of(1L, 2L), index.search("дРЕль", 0, 10));
+        assertEquals(List.of(2L), index.search("аккум дрель", 0, 10));
+        assertEquals(List.of(2L), index.search("дрель", 1, 10));
+        assertTrue(index.search("дрель пила", 0, 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemoveKeepPostingsCurrent() {
+        index.put(new ItemSearchDocument(4L, "Дрель ударная", "Мощная"));
+        index.put(new ItemSearchDocument(1L, "Лобзик", "Электрический"));
+        index.remove(2L);
+
+        assertEquals(List.of(4L), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("лобзик", 0, 10));
+
+        index.put(new ItemSearchDocument(4L, "Мощная дрель", "Ударная"));
+        assertEquals(List.of(4L), index.search("мощ удар", 0, 10));
+
+        ItemSearchIndex.Stats stats = index.stats();
+        assertEquals(3, stats.items());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    void updateMovesTermsBetweenNameAndDescriptionAndDropsStaleOnes() {
+        index.put(new ItemSearchDocument(2L, "Дрель аккумуляторная", "Отвертка"));
+
+        assertEquals(List.of(1L, 2L), index.search("дрель", 0, 10));
+        index.put(new ItemSearchDocument(5L, "Отвертка", "Крестовая"));
+        assertEquals(List.of(5L, 2L), index.search("отвертка", 0, 10));
+        assertTrue(index.search("не", 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingEntity;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.comment.CommentEntity;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.user.UserEntity;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static ru.practicum.shareit.TestFixtures.newBooking;
+import static ru.practicum.shareit.TestFixtures.newUser;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class ItemServiceImplQueryCountTest {
+
+    private static final long MAX_LISTING_QUERIES = 4;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getUserItemsIssuesSameNumberOfQueriesRegardlessOfItemCount() {
+        UserEntity smallOwner = seedOwnerWithItems(3);
+        UserEntity largeOwner = seedOwnerWithItems(40);
+
+        long smallQueries = countQueries(smallOwner.getId(), 3);
+        long largeQueries = countQueries(largeOwner.getId(), 40);
+
+        assertEquals(smallQueries, largeQueries);
+        assertEquals(MAX_LISTING_QUERIES, largeQueries);
+    }
+
+    private long countQueries(Long ownerId, int expectedItems) {
+        statistics.clear();
+        Collection<ItemResponseDto> items = itemService.getUserItems(ownerId);
+        long queries = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedItems, items.size());
+        for (ItemResponseDto item : items) {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            assertEquals(2, item.getComments().size());
+        }
+        return queries;
+    }
+
+    private UserEntity seedOwnerWithItems(int itemCount) {
+        UserEntity owner = userRepository.save(newUser());
+        UserEntity booker = userRepository.save(newUser());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < itemCount; i++) {
+            ItemEntity item = itemRepository.save(ItemEntity.builder()
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(newBooking(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+            bookingRepository.save(newBooking(item, booker, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED));
+            commentRepository.save(newComment(item, booker, "first"));
+            commentRepository.save(newComment(item, booker, "second"));
+        }
+        return owner;
+    }
+
+    private CommentEntity newComment(ItemEntity item, UserEntity author, String text) {
+        CommentEntity comment = new CommentEntity();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(LocalDateTime.now());
+        return comment;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * При исчерпанном пуле запрос не ждёт соединения дольше {@code connection-timeout}:
+ * клиент получает 503, а таймаут попадает в метрику пула.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@AutoConfigureMockMvc
+class ConnectionPoolFailFastTest {
+
+    private static final long MAX_WAIT_MS = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void exhaustedPoolAnswersServiceUnavailable() throws Exception {
+        double timeoutsBefore = timeouts();
+
+        try (Connection ignored = dataSource.getConnection()) {
+            long started = System.nanoTime();
+            mockMvc.perform(get("/bookings/1").header("X-Sharer-User-Id", 1))
+                    .andExpect(status().isServiceUnavailable());
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            assertTrue(elapsedMs < MAX_WAIT_MS, "Запрос ждал соединение " + elapsedMs + " мс");
+        }
+
+        assertEquals(timeoutsBefore + 1, timeouts());
+        mockMvc.perform(get("/bookings/1").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound());
+    }
+
+    private double timeouts() {
+        return meterRegistry.get("hikaricp.connections.timeout").tag("pool", "shareit-db").counter().count();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "shareit.metrics.query-budget=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void hotPathMetricsArePublished() throws Exception {
+        String name = UUID.randomUUID().toString();
+        Long userId = userService.create(UserDto.builder().name(name).email(name + "@example.com").build()).getId();
+
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "shareit_http_queries_count{application=\"shareit\",method=\"GET\",uri=\"/items\"}")))
+                .andExpect(content().string(containsString(
+                        "shareit_http_query_budget_exceeded_total{application=\"shareit\",method=\"GET\",uri=\"/items\"}")))
+                .andExpect(content().string(containsString(
+                        "shareit_service_seconds_bucket{application=\"shareit\",class=\"ru.practicum.shareit.item.ItemServiceImpl\"")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_usage_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{")))
+                .andExpect(content().string(containsString("hikaricp_connections_timeout_total{")))
+                .andExpect(content().string(containsString("cache_gets_total")));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.monitoring;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureMockMvc
+class RequestLoggingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        accessLogger.detachAppender(appender);
+        appender.stop();
+    }
+
+    @Test
+    void oneSummaryLinePerRequest() throws Exception {
+        String name = UUID.randomUUID().toString();
+        Long userId = userService.create(UserDto.builder().name(name).email(name + "@example.com").build()).getId();
+
+        mockMvc.perform(get("/users/{id}", userId)).andExpect(status().isOk());
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", userId)).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        List<String> lines = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(List.of(
+                "method=GET path=/users/" + userId + " status=200 latencyMs=%s userId=- size=1",
+                "method=GET path=/items status=200 latencyMs=%s userId=" + userId + " size=0",
+                "method=GET path=/users/" + Long.MAX_VALUE + " status=404 latencyMs=%s userId=- size=1"),
+                lines.stream().map(line -> line.replaceFirst("latencyMs=\\d+", "latencyMs=%s")).toList());
+    }
+}
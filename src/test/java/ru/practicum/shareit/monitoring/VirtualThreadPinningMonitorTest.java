@@ -0,0 +1,48 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void pinnedVirtualThreadIsCounted() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(10));
+        monitor.start();
+        try {
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(100);
+                }
+            }).join();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (pinnedCount(registry) == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertTrue(pinnedCount(registry) > 0, "Событие закрепления не дошло до метрики");
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    private static double pinnedCount(MeterRegistry registry) {
+        return registry.get(VirtualThreadPinningMonitor.PINNED_METRIC).counter().count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
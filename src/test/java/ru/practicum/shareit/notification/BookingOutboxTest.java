@@ -0,0 +1,181 @@
+package ru.practicum.shareit.notification;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.IllegalTransactionStateException;
+import ru.practicum.shareit.booking.BookingRequestDto;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.bulk.BulkImportService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemRequestDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.TestFixtures.newUserDto;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "shareit.outbox.initial-backoff=1h",
+        "shareit.outbox.max-backoff=2h"
+})
+class BookingOutboxTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BulkImportService bulkImportService;
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    @Autowired
+    private BookingOutbox bookingOutbox;
+    @Autowired
+    private BookingOutboxRepository outboxRepository;
+    @Autowired
+    private RecordingSink sink;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        sink.reset();
+        ownerId = createUser();
+        bookerId = createUser();
+        ItemRequestDto item = new ItemRequestDto();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+    }
+
+    @Test
+    void lifecycleNotificationsAreDeliveredAfterCommitInOrder() {
+        Long bookingId = bookingService.create(booking(1), bookerId).getId();
+        bookingService.approve(ownerId, bookingId);
+        assertEquals(2, outboxRepository.count());
+        assertTrue(sink.delivered.isEmpty());
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        assertEquals(List.of(BookingNotificationType.CREATED, BookingNotificationType.APPROVED),
+                sink.delivered.stream().map(BookingNotification::type).toList());
+        BookingNotification created = sink.delivered.get(0);
+        assertEquals(bookingId, created.bookingId());
+        assertEquals(ownerId, created.ownerId());
+        assertEquals(bookerId, created.bookerId());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void notificationIsWrittenOnlyWithinBookingTransaction() {
+        bookingService.create(booking(1), bookerId);
+        assertThrows(ConflictException.class, () -> bookingService.create(booking(1), bookerId));
+        assertThrows(IllegalTransactionStateException.class, () -> bookingOutbox.enqueue(
+                BookingNotificationType.CREATED, 1L, itemId, ownerId, bookerId));
+
+        assertEquals(1, outboxRepository.count());
+    }
+
+    @Test
+    void bulkImportedBookingsAreAnnouncedToOwner() {
+        String body = bulkRow(1) + bulkRow(2);
+        bulkImportService.importBookings(bookerId, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayOutputStream());
+        assertEquals(2, outboxRepository.count());
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        assertEquals(2, sink.delivered.size());
+        assertTrue(sink.delivered.stream().allMatch(notification ->
+                notification.type() == BookingNotificationType.CREATED
+                        && notification.ownerId().equals(ownerId)
+                        && notification.bookerId().equals(bookerId)
+                        && notification.itemId().equals(itemId)));
+    }
+
+    @Test
+    void failedDeliveryIsRetriedLaterWithTheSameEventId() {
+        bookingService.create(booking(1), bookerId);
+        sink.failures.set(1);
+
+        assertEquals(1, dispatcher.dispatchBatch());
+        BookingOutboxEntity pending = outboxRepository.findAll().get(0);
+        assertEquals(1, pending.getAttempts());
+        assertNotNull(pending.getLastError());
+        assertTrue(pending.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(30)));
+        assertEquals(0, dispatcher.dispatchBatch());
+
+        pending.setNextAttemptAt(LocalDateTime.now());
+        outboxRepository.save(pending);
+        assertEquals(1, dispatcher.dispatchBatch());
+
+        assertEquals(List.of(pending.getId()), sink.delivered.stream().map(BookingNotification::eventId).toList());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    private BookingRequestDto booking(int daysFromNow) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysFromNow);
+        return new BookingRequestDto(itemId, start, start.plusHours(2));
+    }
+
+    private String bulkRow(int daysFromNow) {
+        BookingRequestDto booking = booking(daysFromNow);
+        return "{\"itemId\":" + itemId + ",\"start\":\"" + booking.getStart()
+                + "\",\"end\":\"" + booking.getEnd() + "\"}\n";
+    }
+
+    private Long createUser() {
+        return userService.create(newUserDto()).getId();
+    }
+
+    static class RecordingSink implements NotificationSink {
+        final List<BookingNotification> delivered = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void send(BookingNotification notification) {
+            if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException("Канал недоступен");
+            }
+            delivered.add(notification);
+        }
+
+        void reset() {
+            delivered.clear();
+            failures.set(0);
+        }
+    }
+
+    @TestConfiguration
+    static class SinkConfiguration {
+
+        @Bean
+        @Primary
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int MIN_LIMIT = 2;
+    private static final int MAX_LIMIT = 8;
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(20);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Timer poolAcquire = meterRegistry.timer(AdaptiveConcurrencyLimiter.POOL_ACQUIRE_METRIC);
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            meterRegistry, Duration.ofMillis(50), SAMPLE_INTERVAL, MIN_LIMIT, MAX_LIMIT);
+
+    @Test
+    void slowPoolShrinksLimitAndShedsExcessRequests() throws InterruptedException {
+        while (limiter.limit() > MIN_LIMIT) {
+            poolAcquire.record(Duration.ofMillis(200));
+            awaitNextSample();
+            assertTrue(limiter.tryAcquire());
+            limiter.release();
+        }
+
+        poolAcquire.record(Duration.ofMillis(200));
+        awaitNextSample();
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(MIN_LIMIT, limiter.inFlight());
+    }
+
+    @Test
+    void fastPoolRestoresLimitOneStepPerSample() throws InterruptedException {
+        poolAcquire.record(Duration.ofMillis(200));
+        awaitNextSample();
+        limiter.tryAcquire();
+        limiter.release();
+        int reduced = limiter.limit();
+        assertEquals(6, reduced);
+
+        poolAcquire.record(Duration.ofMillis(1));
+        awaitNextSample();
+        limiter.tryAcquire();
+        limiter.release();
+        assertEquals(reduced + 1, limiter.limit());
+    }
+
+    private static void awaitNextSample() throws InterruptedException {
+        Thread.sleep(SAMPLE_INTERVAL.toMillis() + 5);
+    }
+}
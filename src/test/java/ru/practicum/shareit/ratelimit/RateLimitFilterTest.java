@@ -0,0 +1,139 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.user.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestFixtures.newUserDto;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "shareit.rate-limit.capacity=3",
+        "shareit.rate-limit.refill-per-second=0.01",
+        "shareit.rate-limit.bulk.capacity=1",
+        "shareit.rate-limit.bulk.refill-per-second=0.01"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    private static final int CAPACITY = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private FilterRegistrationBean<RateLimitFilter> rateLimitFilter;
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Test
+    void writesBeyondUserBucketAreThrottledWithoutAffectingOthers() throws Exception {
+        Long greedy = createUser();
+        Long polite = createUser();
+        double throttledBefore = decisions("throttled");
+
+        for (int i = 0; i < CAPACITY; i++) {
+            createItem(greedy).andExpect(status().isCreated());
+        }
+        createItem(greedy)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").value("Слишком много запросов"));
+
+        createItem(polite).andExpect(status().isCreated());
+        mockMvc.perform(get("/items").header(RateLimitFilter.USER_HEADER, greedy))
+                .andExpect(status().isOk());
+        assertEquals(throttledBefore + 1, decisions("throttled"));
+    }
+
+    @Test
+    void userWritesShareTheUserBucket() throws Exception {
+        Long greedy = createUser();
+        for (int i = 0; i < CAPACITY; i++) {
+            createItem(greedy).andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(patch("/users/" + greedy)
+                        .header(RateLimitFilter.USER_HEADER, greedy)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Новое имя\"}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void bulkWritesPayFromSeparateBucket() throws Exception {
+        Long importer = createUser();
+
+        assertEquals(200, filter(postTo("/items/bulk", importer), (request, response) -> {
+        }).getStatus());
+        assertEquals(429, filter(postTo("/bookings/bulk", importer), (request, response) -> {
+        }).getStatus());
+        createItem(importer).andExpect(status().isCreated());
+    }
+
+    /**
+     * Потоковый импорт выходит из цепочки фильтров сразу после старта асинхронной обработки,
+     * а место в пределе должен держать до её завершения.
+     */
+    @Test
+    void streamingWriteHoldsConcurrencySlotUntilAsyncCompletes() throws Exception {
+        int before = concurrencyLimiter.inFlight();
+        MockHttpServletRequest streaming = postTo("/users/bulk", null);
+
+        assertEquals(200, filter(streaming, (request, response) -> request.startAsync()).getStatus());
+        assertEquals(before + 1, concurrencyLimiter.inFlight());
+        streaming.getAsyncContext().complete();
+        assertEquals(before, concurrencyLimiter.inFlight());
+    }
+
+    private static MockHttpServletRequest postTo(String path, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setAsyncSupported(true);
+        if (userId != null) {
+            request.addHeader(RateLimitFilter.USER_HEADER, userId);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.getFilter().doFilter(request, response, chain);
+        return response;
+    }
+
+    private ResultActions createItem(Long userId) throws Exception {
+        return mockMvc.perform(post("/items")
+                .header(RateLimitFilter.USER_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}"));
+    }
+
+    private Long createUser() {
+        return userService.create(newUserDto()).getId();
+    }
+
+    private double decisions(String outcome) {
+        return meterRegistry.get(RateLimitFilter.DECISIONS_METRIC).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRequestDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.TestFixtures.newUserDto;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ItemRequestServiceTest {
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemRequestController itemRequestController;
+
+    @Test
+    void ownRequestsCarryAnswersAndFeedPagesOverOthers() {
+        Long requester = createUser();
+        Long otherRequester = createUser();
+        Long owner = createUser();
+        Long drill = itemRequestService.create(new ItemRequestCreateDto("Нужна дрель"), requester).getId();
+        Long tent = itemRequestService.create(new ItemRequestCreateDto("Нужна палатка"), requester).getId();
+        Long bike = itemRequestService.create(new ItemRequestCreateDto("Нужен велосипед"), requester).getId();
+        itemRequestService.create(new ItemRequestCreateDto("Нужна лодка"), otherRequester);
+        Long drillA = answer(drill, "Дрель A", owner);
+        Long drillB = answer(drill, "Дрель B", owner);
+        Long tentA = answer(tent, "Палатка", owner);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemRequestResponseDto> own = itemRequestService.getOwn(requester);
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+
+        assertEquals(List.of(bike, tent, drill), own.stream().map(ItemRequestResponseDto::getId).toList());
+        assertEquals(List.of(), own.get(0).getItems());
+        assertEquals(List.of(tentA), own.get(1).getItems().stream().map(ItemAnswerDto::getId).toList());
+        assertEquals(List.of(drillA, drillB), own.get(2).getItems().stream().map(ItemAnswerDto::getId).toList());
+        assertEquals(owner, own.get(2).getItems().get(0).getOwnerId());
+
+        KeysetPage<ItemRequestResponseDto> first = itemRequestService.getOthers(otherRequester, 2, null);
+        assertEquals(List.of(bike, tent), first.content().stream().map(ItemRequestResponseDto::getId).toList());
+        assertNotNull(first.nextCursor());
+        KeysetPage<ItemRequestResponseDto> second = itemRequestService.getOthers(otherRequester, 2, first.nextCursor());
+        assertEquals(List.of(drill), second.content().stream().map(ItemRequestResponseDto::getId).toList());
+        assertEquals(2, second.content().get(0).getItems().size());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void feedPageSizeIsCapped() {
+        Long user = createUser();
+
+        assertThrows(ConstraintViolationException.class,
+                () -> itemRequestController.getOthers(user, Integer.MAX_VALUE, null));
+    }
+
+    @Test
+    void itemCannotAnswerMissingRequest() {
+        Long owner = createUser();
+        ItemRequestDto item = itemDto("Дрель", Long.MAX_VALUE);
+
+        assertThrows(NotFoundException.class, () -> itemService.create(item, owner));
+    }
+
+    private Long answer(Long requestId, String name, Long owner) {
+        return itemService.create(itemDto(name, requestId), owner).getId();
+    }
+
+    private ItemRequestDto itemDto(String name, Long requestId) {
+        ItemRequestDto dto = new ItemRequestDto();
+        dto.setName(name);
+        dto.setDescription(name + " в хорошем состоянии");
+        dto.setAvailable(true);
+        dto.setRequestId(requestId);
+        return dto;
+    }
+
+    private Long createUser() {
+        return userService.create(newUserDto()).getId();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.TestFixtures.newUserDto;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class UserCacheTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCacheAndUpdatesAreVisible() {
+        UserDto created = userService.create(newUserDto());
+
+        statistics.clear();
+        userService.get(created.getId());
+        userService.get(created.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+
+        userService.update(UserDto.builder().name("Renamed").build(), created.getId());
+        assertEquals("Renamed", userService.get(created.getId()).getName());
+    }
+
+    @Test
+    void existenceCheckIsCachedAndEvictedOnDelete() {
+        UserDto created = userService.create(newUserDto());
+        assertTrue(userService.userExistsById(created.getId()));
+
+        statistics.clear();
+        assertTrue(userService.userExistsById(created.getId()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        userService.delete(created.getId());
+        assertFalse(userService.userExistsById(created.getId()));
+    }
+}